@@ -0,0 +1,145 @@
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JComponent;
+
+/**
+ * The class <b>BoardCanvas</b> is an alternative to the matrix of 
+ * <b>DotButton</b> for large boards. The whole board is a single 
+ * component that paints the dots itself, from tiles scaled once from the
+ * icons of <b>DotButton</b>. Only the dots intersecting the clip are
+ * painted, so that inside a <b>JScrollPane</b> the cost of a paint 
+ * depends on the visible area and not on the size of the board.
+ *
+ * As in the matrix of buttons, the dot (i,j) is drawn on the line i and
+ * the column j.
+ *
+ */
+
+public class BoardCanvas extends JComponent {
+
+    private Image[] tiles = new Image[DotButton.NUMBER_OF_ICONS];
+
+    private int tileSize;
+
+    private GameView gameView;
+
+    private GameController gameController;
+
+    private GameModel gameModel;
+
+    /**
+     * Constructor used for initializing the canvas
+     * 
+     * @param gameModel
+     *            the model of the game (already initialized)
+     * @param gameView
+     *            the view, which provides the icon of each dot
+     * @param gameController
+     *            the controller, to which the clicks are forwarded
+     * @param size
+     *            the size in pixels of a dot
+     */
+    public BoardCanvas(GameModel gameModel, GameView gameView, GameController gameController, int size) {
+
+        this.gameModel = gameModel;
+        this.gameView = gameView;
+        this.gameController = gameController;
+        loadTiles(size);
+
+        setPreferredSize(new Dimension(gameModel.getHeigth()*size, gameModel.getWidth()*size));
+        setOpaque(true);
+
+        addMouseListener(new MouseAdapter() {
+            public void mouseReleased(MouseEvent e) {
+                if (!contains(e.getPoint())) {
+                    return;
+                }
+                int i = e.getY() / tileSize;
+                int j = e.getX() / tileSize;
+                if (i < gameModel.getWidth() && j < gameModel.getHeigth()) {
+                    gameController.click(i, j, e);
+                }
+            }
+        });
+
+    }
+
+    /**
+     * Asks for the rectangle of dots from (firstLine,firstColumn) to
+     * (lastLine,lastColumn), both included, to be painted again with a
+     * single repaint
+     * 
+     * @param firstLine
+     *            the x coordinate of the first dot
+     * @param firstColumn
+     *            the y coordinate of the first dot
+     * @param lastLine
+     *            the x coordinate of the last dot
+     * @param lastColumn
+     *            the y coordinate of the last dot
+     */
+    public void repaintDots(int firstLine, int firstColumn, int lastLine, int lastColumn) {
+
+        repaint(firstColumn*tileSize, firstLine*tileSize, 
+            (lastColumn - firstColumn + 1)*tileSize, (lastLine - firstLine + 1)*tileSize);
+
+    }
+
+    /**
+     * Paints the dots that intersect the clip of the graphics
+     * 
+     * @param g
+     *            the graphics to paint on
+     */
+    protected void paintComponent(Graphics g) {
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+
+        int firstLine = Math.max(0, clip.y / tileSize);
+        int lastLine = Math.min(gameModel.getWidth() - 1, (clip.y + clip.height - 1) / tileSize);
+        int firstColumn = Math.max(0, clip.x / tileSize);
+        int lastColumn = Math.min(gameModel.getHeigth() - 1, (clip.x + clip.width - 1) / tileSize);
+
+        for (int i = firstLine; i <= lastLine; i++) {
+            for (int j = firstColumn; j <= lastColumn; j++) {
+                g.drawImage(tiles[gameView.getIcon(i, j)], j*tileSize, i*tileSize, null);
+            }
+        }
+
+    }
+
+    /**
+     * Scales the icons of <b>DotButton</b> to the given size. Each canvas
+     * has its own tiles, so that canvas of different sizes can be shown
+     * at the same time.
+     * 
+     * @param size
+     *            the size in pixels of a tile
+     */
+    private void loadTiles(int size) {
+
+        for (int n = 0; n < DotButton.NUMBER_OF_ICONS; n++) {
+            BufferedImage tile = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = tile.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, 
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(DotButton.getImageIcon(n).getImage(), 0, 0, size, size, null);
+            g.dispose();
+            tiles[n] = tile;
+        }
+        tileSize = size;
+
+    }
+
+}
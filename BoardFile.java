@@ -0,0 +1,297 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The class <b>BoardFile</b> saves a game to a binary file and reads it
+ * back. The file is written and read through a <b>MappedByteBuffer</b>,
+ * without creating any object per dot, so that boards of hundreds of
+ * millions of dots are saved and loaded in a fraction of a second.
+ *
+ * The format (version 2, little-endian) is a header of 40 bytes:
+ * - the magic number "MSWB" and the version, as two ints
+ * - the width, the heigth, the number of mines asked for, the number of
+ * steps played and the options (1 for firstClickSafe, 2 for a torus, 4
+ * for a hexagonal grid), as five ints
+ * - an int reserved for later versions, always 0
+ * - the seed of the board, as a long
+ * followed by four bitsets: the mined, covered, clicked and flagged dots.
+ * Each bitset is an array of longs; the dot of index i*heigth+j is the bit
+ * (k mod 64) of the long (k / 64), with k = i*heigth+j. The numbers of
+ * neighbooring mines are not saved, they are computed again on loading.
+ *
+ * The files of version 1, written before the topologies, are still read:
+ * their only option is firstClickSafe. A file with an option unknown to
+ * its version is rejected, rather than read with a wrong topology.
+ *
+ */
+
+public class BoardFile {
+
+    static final int MAGIC = 0x4D535742;
+
+    static final int VERSION = 2;
+
+    static final int HEADER = 40;
+
+    private static final int FIRST_CLICK_SAFE = 1;
+
+    private static final int TORUS = 2;
+
+    private static final int HEX = 4;
+
+    private static final int[] OPTIONS = {0, FIRST_CLICK_SAFE, FIRST_CLICK_SAFE | TORUS | HEX};
+
+    /**
+     * returns the number of longs of each bitset of a board
+     *
+     * @param size
+     *            the number of dots of the board
+     * @return the number of longs of a bitset
+     */
+    static int words(int size) {
+
+        return (size + 63) >>> 6;
+
+    }
+
+    /**
+     * Saves the game of a model to a file, replacing it if it exists. The
+     * file is written to the storage device before the method returns.
+     *
+     * @param gameModel
+     *            the model to save
+     * @param path
+     *            the file to write
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void save(GameModel gameModel, Path path) throws IOException {
+
+        BoardStorage storage = gameModel.getStorage();
+        int size = gameModel.getWidth()*gameModel.getHeigth();
+        int words = words(size);
+        MappedByteBuffer buffer;
+        long mined, covered, clicked, flagged;
+        int k, state;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + 32L*words);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(gameModel.getWidth());
+        buffer.putInt(gameModel.getHeigth());
+        buffer.putInt(gameModel.getNumberOfMines());
+        buffer.putInt(gameModel.getNumberOfSteps());
+        buffer.putInt((gameModel.isFirstClickSafe() ? FIRST_CLICK_SAFE : 0)
+            | (gameModel.getTopology().isTorus() ? TORUS : 0)
+            | (gameModel.getTopology().isHex() ? HEX : 0));
+        buffer.putInt(0);
+        buffer.putLong(gameModel.getSeed());
+
+        for (int w = 0; w < words; w++) {
+            mined = 0;
+            covered = 0;
+            clicked = 0;
+            flagged = 0;
+            for (int b = 0; b < 64 && (k = 64*w + b) < size; b++) {
+                state = state(storage, k);
+                mined |= (state & PackedBoardStorage.MINED) != 0 ? 1L << b : 0;
+                covered |= (state & PackedBoardStorage.COVERED) != 0 ? 1L << b : 0;
+                clicked |= (state & PackedBoardStorage.CLICKED) != 0 ? 1L << b : 0;
+                flagged |= (state & PackedBoardStorage.FLAGGED) != 0 ? 1L << b : 0;
+            }
+            buffer.putLong(HEADER + 8*w, mined);
+            buffer.putLong(HEADER + 8*(words + w), covered);
+            buffer.putLong(HEADER + 8*(2*words + w), clicked);
+            buffer.putLong(HEADER + 8*(3*words + w), flagged);
+        }
+        buffer.force();
+
+    }
+
+    /**
+     * Reads a game from a file into a new model, with a packed storage
+     *
+     * @param path
+     *            the file to read
+     * @return the model, ready to play on
+     * @throws IOException
+     *             if the file cannot be read or is not a board file
+     */
+    public static GameModel load(Path path) throws IOException {
+
+        MappedByteBuffer buffer;
+        PackedBoardStorage storage;
+        int width, heigth, size, words;
+        long mined, covered, clicked, flagged;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        checkHeader(buffer, path);
+
+        width = buffer.getInt(8);
+        heigth = buffer.getInt(12);
+        size = width*heigth;
+        words = words(size);
+        storage = new PackedBoardStorage(width, heigth);
+
+        for (int w = 0; w < words; w++) {
+            mined = buffer.getLong(HEADER + 8*w);
+            covered = buffer.getLong(HEADER + 8*(words + w));
+            clicked = buffer.getLong(HEADER + 8*(2*words + w));
+            flagged = buffer.getLong(HEADER + 8*(3*words + w));
+            for (int b = 0, k = 64*w; b < 64 && k < size; b++, k++) {
+                storage.setState(k, (int) ((mined >>> b) & 1) * PackedBoardStorage.MINED
+                    | (int) ((covered >>> b) & 1) * PackedBoardStorage.COVERED
+                    | (int) ((clicked >>> b) & 1) * PackedBoardStorage.CLICKED
+                    | (int) ((flagged >>> b) & 1) * PackedBoardStorage.FLAGGED);
+            }
+        }
+
+        return build(buffer, storage);
+
+    }
+
+    /**
+     * Opens a game from a file into a new model which uses the mapped
+     * file itself as its storage. The file is never modified, although
+     * the mapping requires it to be writable: the changes of the game are
+     * kept in memory, page by page, as the operating system copies the
+     * pages written.
+     *
+     * @param path
+     *            the file to open
+     * @return the model, ready to play on
+     * @throws IOException
+     *             if the file cannot be read or is not a board file
+     */
+    public static GameModel open(Path path) throws IOException {
+
+        MappedByteBuffer buffer;
+        ByteBuffer bitsets;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.PRIVATE, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        checkHeader(buffer, path);
+
+        bitsets = buffer.slice(HEADER, buffer.capacity() - HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        return build(buffer, new MappedBoardStorage(bitsets, topology(buffer)));
+
+    }
+
+    /**
+     * Creates the model of a file on a filled storage
+     *
+     * @param buffer
+     *            the content of the file
+     * @param storage
+     *            the storage holding the board of the file
+     * @return the model
+     */
+    private static GameModel build(ByteBuffer buffer, BoardStorage storage) {
+
+        return new GameModel.Builder(buffer.getInt(8), buffer.getInt(12), buffer.getInt(16))
+            .board(storage, buffer.getInt(20))
+            .topology(topology(buffer))
+            .firstClickSafe((buffer.getInt(24) & FIRST_CLICK_SAFE) != 0)
+            .seed(buffer.getLong(32))
+            .build();
+
+    }
+
+    /**
+     * returns the topology of the board of a file
+     *
+     * @param buffer
+     *            the content of the file
+     * @return the topology given by the options of the file
+     */
+    private static Topology topology(ByteBuffer buffer) {
+
+        int width = buffer.getInt(8);
+        int heigth = buffer.getInt(12);
+
+        if ((buffer.getInt(24) & TORUS) != 0) {
+            return Topology.torus(width, heigth);
+        }
+        if ((buffer.getInt(24) & HEX) != 0) {
+            return Topology.hex(width, heigth);
+        }
+        return Topology.square(width, heigth);
+
+    }
+
+    /**
+     * Checks that a file starts with a valid header, with only the options
+     * of its version, and has the length given by its header
+     *
+     * @param buffer
+     *            the content of the file
+     * @param path
+     *            the file, for the error message
+     * @throws IOException
+     *             if the file is not a board file
+     */
+    private static void checkHeader(ByteBuffer buffer, Path path) throws IOException {
+
+        long width, heigth;
+        int version, options;
+
+        if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a board file");
+        }
+        version = buffer.getInt(4);
+        if (version < 1 || version > VERSION) {
+            throw new IOException(path + " has the unsupported version " + version);
+        }
+        options = buffer.getInt(24);
+        if ((options & ~OPTIONS[version]) != 0) {
+            throw new IOException(path + " has options unknown to version " + version + ": " 
+                + Integer.toHexString(options & ~OPTIONS[version]));
+        }
+        width = buffer.getInt(8);
+        heigth = buffer.getInt(12);
+        if (width <= 0 || heigth <= 0 || width*heigth > Integer.MAX_VALUE
+            || buffer.capacity() != HEADER + 32L*words((int) (width*heigth))
+            || (options & (TORUS | HEX)) == (TORUS | HEX)
+            || (options & TORUS) != 0 && (width < 3 || heigth < 3)) {
+            throw new IOException(path + " is truncated or corrupted");
+        }
+
+    }
+
+    /**
+     * returns the flags of a dot, as packed by <b>PackedBoardStorage</b>
+     *
+     * @param storage
+     *            the storage of the board
+     * @param k
+     *            the index of the dot
+     * @return the MINED, COVERED, CLICKED and FLAGGED flags of the dot
+     */
+    private static int state(BoardStorage storage, int k) {
+
+        if (storage instanceof PackedBoardStorage) {
+            return ((PackedBoardStorage) storage).getState(k);
+        }
+        return (storage.isMined(k) ? PackedBoardStorage.MINED : 0)
+            | (storage.isCovered(k) ? PackedBoardStorage.COVERED : 0)
+            | (storage.hasBeenClicked(k) ? PackedBoardStorage.CLICKED : 0)
+            | (storage.isFlagged(k) ? PackedBoardStorage.FLAGGED : 0);
+
+    }
+
+}
@@ -0,0 +1,162 @@
+/**
+ * The interface <b>BoardStorage</b> abstracts the way the state of
+ * the dots of a board is kept in memory. Dots are addressed by a
+ * single index, <b>i*heigth+j</b>, where (i,j) are the coordinates
+ * of the dot and heigth the heigth of the board.
+ *
+ */
+
+public interface BoardStorage {
+
+    /**
+     * Getter for mined
+     *
+     * @param index
+     *            the index of the dot
+     * @return true if the dot is mined, false otherwise
+     */
+
+    public abstract boolean isMined(int index);
+
+    /**
+     * Setter for mined
+     *
+     * @param index
+     *            the index of the dot
+     */
+
+    public abstract void setMined(int index);
+
+    /**
+     * Removes the mine of a dot
+     *
+     * @param index
+     *            the index of the dot
+     */
+
+    public abstract void clearMine(int index);
+
+    /**
+     * Getter for covered
+     *
+     * @param index
+     *            the index of the dot
+     * @return true if the dot is covered, false otherwise
+     */
+
+    public abstract boolean isCovered(int index);
+
+    /**
+     * Setter for covered
+     *
+     * @param index
+     *            the index of the dot
+     */
+
+    public abstract void uncover(int index);
+
+    /**
+     * Covers a dot again, when a move is undone
+     *
+     * @param index
+     *            the index of the dot
+     */
+
+    public abstract void cover(int index);
+
+    /**
+     * Getter for wasClicked
+     *
+     * @param index
+     *            the index of the dot
+     * @return true if the dot has been clicked, false otherwise
+     */
+
+    public abstract boolean hasBeenClicked(int index);
+
+    /**
+     * Setter for wasClicked
+     *
+     * @param index
+     *            the index of the dot
+     */
+
+    public abstract void click(int index);
+
+    /**
+     * Clears wasClicked, when a move is undone
+     *
+     * @param index
+     *            the index of the dot
+     */
+
+    public abstract void unclick(int index);
+
+    /**
+     * Getter for flagged
+     *
+     * @param index
+     *            the index of the dot
+     * @return true if the dot is flagged, false otherwise
+     */
+
+    public abstract boolean isFlagged(int index);
+
+    /**
+     * Flags the dot if it is not flagged, and removes its flag otherwise
+     *
+     * @param index
+     *            the index of the dot
+     */
+
+    public abstract void toggleFlag(int index);
+
+    /**
+     * Getter for neighbooringMines
+     *
+     * @param index
+     *            the index of the dot
+     * @return the number of neighbooring mines of the dot
+     */
+
+    public abstract int getNeighbooringMines(int index);
+
+    /**
+     * Setter for neighbooringMines
+     *
+     * @param index
+     *            the index of the dot
+     * @param neighbooringMines
+     *            number of neighbooring mines
+     */
+
+    public abstract void setNeighbooringMines(int index, int neighbooringMines);
+
+    /**
+     * returns true if the storage keeps the numbers given to 
+     * setNeighbooringMines, false if it computes them from the mines
+     *
+     * @return true if the numbers must be computed by the model
+     */
+
+    public abstract boolean storesNeighbooringMines();
+
+    /**
+     * Puts every dot back in its initial state: covered, not clicked,
+     * not flagged, not mined and without neighbooring mines. No memory is allocated.
+     */
+
+    public abstract void clear();
+
+    /**
+     * Returns a <b>DotInfo</b> reference describing the dot. Changes
+     * made through that reference are reflected in the storage.
+     *
+     * @param index
+     *            the index of the dot
+     * @return the DotInfo of the dot
+     */
+
+    public abstract DotInfo get(int index);
+
+}
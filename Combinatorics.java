@@ -0,0 +1,129 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * The class <b>Combinatorics</b> gathers the counting functions used to
+ * reason about the distribution of mines: logarithms of factorials and
+ * binomial coefficients, and sampling from the hypergeometric 
+ * distribution (the number of mines that fall in a part of the board 
+ * when the mines are placed uniformly on the whole board).
+ *
+ */
+
+public class Combinatorics {
+
+    private static final int TABLE_SIZE = 256;
+
+    private static final double[] LOG_FACTORIALS = new double[TABLE_SIZE];
+
+    static {
+        for (int n = 1; n < TABLE_SIZE; n++) {
+            LOG_FACTORIALS[n] = LOG_FACTORIALS[n-1] + Math.log(n);
+        }
+    }
+
+    /**
+     * returns the natural logarithm of n!
+     * 
+     * @param n
+     *            a non negative number
+     * @return the logarithm of n!
+     */
+    public static double logFactorial(long n) {
+
+        if (n < TABLE_SIZE) {
+            return LOG_FACTORIALS[(int) n];
+        }
+        double x = n;
+        double inverse = 1.0 / x;
+        double inverse2 = inverse * inverse;
+        return x * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI * x)
+            + inverse * (1.0/12 - inverse2 * (1.0/360 - inverse2 / 1260));
+
+    }
+
+    /**
+     * returns the natural logarithm of the binomial coefficient (n k)
+     * 
+     * @param n
+     *            the size of the set
+     * @param k
+     *            the size of the subsets
+     * @return the logarithm of the number of subsets of size k of a set
+     *  of size n, or negative infinity if there is none
+     */
+    public static double logChoose(long n, long k) {
+
+        if (k < 0 || k > n) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return logFactorial(n) - logFactorial(k) - logFactorial(n - k);
+
+    }
+
+    /**
+     * Draws from the hypergeometric distribution: the number of marked 
+     * elements among <b>draws</b> elements taken without replacement from 
+     * a set of <b>total</b> elements of which <b>marked</b> are marked.
+     *
+     * The probabilities are walked outward from the mode, alternately up
+     * and down, so the number of steps is of the order of the standard
+     * deviation of the distribution.
+     * 
+     * @param generator
+     *            the random generator to use
+     * @param total
+     *            the size of the set
+     * @param marked
+     *            the number of marked elements of the set
+     * @param draws
+     *            the number of elements taken
+     * @return the number of marked elements taken
+     */
+    public static long hypergeometric(RandomGenerator generator, long total, long marked, long draws) {
+
+        long low = Math.max(0, draws - (total - marked));
+        long high = Math.min(draws, marked);
+
+        if (low == high) {
+            return low;
+        }
+
+        long mode = (long) ((draws + 1.0) * (marked + 1.0) / (total + 2.0));
+        mode = Math.max(low, Math.min(high, mode));
+
+        double p = Math.exp(logChoose(marked, mode) + logChoose(total - marked, draws - mode) 
+            - logChoose(total, draws));
+        double u = generator.nextDouble() - p;
+        if (u <= 0) {
+            return mode;
+        }
+
+        long up = mode, down = mode;
+        double pUp = p, pDown = p;
+
+        while (up < high || down > low) {
+            if (up < high) {
+                pUp *= (double) (marked - up) * (draws - up) 
+                    / ((up + 1.0) * (total - marked - draws + up + 1.0));
+                up++;
+                u -= pUp;
+                if (u <= 0) {
+                    return up;
+                }
+            }
+            if (down > low) {
+                pDown *= (double) down * (total - marked - draws + down) 
+                    / ((marked - down + 1.0) * (draws - down + 1.0));
+                down--;
+                u -= pDown;
+                if (u <= 0) {
+                    return down;
+                }
+            }
+        }
+
+        return mode;
+
+    }
+
+}
@@ -129,19 +129,36 @@ public class DotButton extends JButton {
 
     private ImageIcon getImageIcon() {
     
+        return getImageIcon(iconNumber);
+
+    }
+
+    /**
+     * Returns the shared <b>ImageIcon</b> reference of a given icon
+     * number, loading the image the first time it is needed.
+     * 
+     * @param iconNumber
+     *            the iconNumber, based on the predifined constant values
+     *  defined in this class
+     * @return the image of that icon number
+     */
+
+    public static ImageIcon getImageIcon(int iconNumber) {
 
         if (icons[iconNumber] == null) {
-                icons[iconNumber] = new ImageIcon("icons/" + getIconFileName());
+                icons[iconNumber] = new ImageIcon("icons/" + getIconFileName(iconNumber));
         }
         return icons[iconNumber];
     }
     /**
      * This method returns the name of the file containing the image 
-     * corresponding to the current value of the variable iconNumber.
+     * corresponding to a value of the variable iconNumber.
      *
+     * @param iconNumber
+     *            the iconNumber
      * @return the name of the icon file to be used
      */
-    private String getIconFileName(){
+    private static String getIconFileName(int iconNumber){
         switch(iconNumber) {
             case 0 : return "Minesweeper_0.png";
             case 1 : return "Minesweeper_1.png";
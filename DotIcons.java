@@ -0,0 +1,134 @@
+/**
+ * The class <b>DotIcons</b> keeps the icon of each dot of a board, one
+ * byte per dot, updated from the states held by the events of the model.
+ * It is the part of <b>GameView</b> that needs no display: the view
+ * draws the dots from these icons and never reads the model, which is
+ * played on another thread.
+ *
+ */
+
+public class DotIcons implements GameListener {
+
+    /**
+     * the icon of a covered dot
+     */
+    public static final int BLANK = 11;
+
+    private int heigth;
+
+    private byte[] icons;
+
+    /**
+     * Constructor, which takes the icons of the current state of the
+     * model. Called before the events of the model are listened to, on
+     * the thread that plays it.
+     *
+     * @param gameModel
+     *            the model of the game (already initialized)
+     */
+    public DotIcons(GameModel gameModel) {
+
+        heigth = gameModel.getHeigth();
+        icons = new byte[gameModel.getWidth()*heigth];
+        for(int k=0; k<icons.length; k++){
+            icons[k] = (byte) getIcon(gameModel.getState(k), gameModel.isFinished());
+        }
+
+    }
+
+    /**
+     * Callback of the events of the model. A reset covers the whole
+     * board; the other events only change their dots, to the states held
+     * by the event. The end of a game changes no icon: the dots uncovered
+     * at the end are in the REVEALED event of the move.
+     *
+     * @param event
+     *            the GameEvent
+     */
+    public void gameChanged(GameEvent event){
+
+        switch(event.getType()){
+            case RESET:
+                java.util.Arrays.fill(icons, (byte) BLANK);
+                return;
+            case WON:
+            case LOST:
+                return;
+            default:
+                break;
+        }
+
+        for(int n=0; n<event.size(); n++){
+            icons[event.getDot(n)] = (byte) getIcon(event.getState(n), false);
+        }
+
+    }
+
+    /**
+     * returns the icon value that must be used for a given dot
+     * in the game
+     *
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the icon to use for the dot at location (i,j)
+     */
+    public int getIcon(int i, int j){
+
+        return icons[i*heigth + j];
+
+    }
+
+    /**
+     * returns the number of dots of the board
+     *
+     * @return the number of icons
+     */
+    public int size(){
+
+        return icons.length;
+
+    }
+
+    /**
+     * returns the icon value that must be used for a dot in a given state
+     *
+     * @param state
+     *            the state of the dot, as in <b>GameEvent</b>
+     * @param finished
+     *            true if the game is finished
+     * @return the icon to use for the dot
+     */
+    static int getIcon(int state, boolean finished){
+
+        boolean mined = (state & GameEvent.MINED) != 0;
+        boolean covered = (state & GameEvent.COVERED) != 0;
+
+        if((state & GameEvent.CLICKED) != 0 && mined){
+            return 10; // clicked mine
+        }
+        else if(!covered && mined){
+            return 9; // mine
+        }
+
+        else if(finished && mined){
+            return 12; //flagged mine
+        }
+
+        else if(!covered){
+            return state & GameEvent.NEIGHBOORS;
+        }
+
+        else if((state & GameEvent.FLAGGED) != 0){
+            return 12; //flagged
+        }
+
+        else{
+            return BLANK; //blank
+        }
+
+
+    }
+
+}
@@ -11,6 +11,8 @@ public class DotInfo {
 
     private boolean covered;
 
+    private boolean flagged;
+
     private boolean mined;
 
     private int neighbooringMines;
@@ -34,7 +36,18 @@ public class DotInfo {
 
         this.x = x;
         this.y = y;
+        clear();
+
+    }
+
+    /**
+     * Puts the dot back in its initial state: covered, not clicked,
+     * not flagged, not mined and without neighbooring mines
+     */
+    public void clear(){
+
         covered = true;
+        flagged = false;
         mined = false;
         neighbooringMines = 0;
         wasClicked = false;
@@ -73,6 +86,15 @@ public class DotInfo {
 
     }
 
+    /**
+     * Removes the mine of the dot
+     */
+    public void clearMine() {
+
+        mined = false;
+
+    }
+
     /**
      * Getter for mined
      *
@@ -94,6 +116,15 @@ public class DotInfo {
 
     }
 
+    /**
+     * Covers the dot again, when a move is undone
+     */
+    public void cover() {
+
+        covered = true;
+
+    }
+
     /**
      * Getter for covered
      *
@@ -107,6 +138,29 @@ public class DotInfo {
 
 
 
+    /**
+     * Setter for flagged: flags the dot if it is not flagged, and
+     * removes its flag otherwise
+     */
+    public void toggleFlag() {
+
+        flagged = !flagged;
+
+    }
+
+    /**
+     * Getter for flagged
+     *
+     * @return flagged
+     */
+    public boolean isFlagged(){
+
+        return flagged;
+
+    }
+
+
+
     /**
      * Setter for wasClicked
      */
@@ -116,6 +170,15 @@ public class DotInfo {
 
     }
 
+    /**
+     * Clears wasClicked, when a move is undone
+     */
+    public void unclick() {
+
+        wasClicked = false;
+
+    }
+
 
     /**
      * Getter for wasClicked
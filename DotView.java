@@ -0,0 +1,82 @@
+/**
+ * The class <b>DotView</b> is a <b>DotInfo</b> which holds no state of
+ * its own: it reads and writes one dot of a <b>BoardStorage</b>. It lets
+ * the storages which do not keep DotInfo objects hand out dots.
+ *
+ */
+
+class DotView extends DotInfo {
+
+    private BoardStorage storage;
+
+    private int index;
+
+    /**
+     * Constructor of a view of a dot
+     *
+     * @param storage
+     *            the storage holding the dot
+     * @param index
+     *            the index of the dot
+     * @param heigth
+     *            the heigth of the board
+     */
+    DotView(BoardStorage storage, int index, int heigth){
+        super(index / heigth, index % heigth);
+        this.storage = storage;
+        this.index = index;
+    }
+
+    public void setMined(){
+        storage.setMined(index);
+    }
+
+    public void clearMine(){
+        storage.clearMine(index);
+    }
+
+    public boolean isMined(){
+        return storage.isMined(index);
+    }
+
+    public void uncover(){
+        storage.uncover(index);
+    }
+
+    public void cover(){
+        storage.cover(index);
+    }
+
+    public boolean isCovered(){
+        return storage.isCovered(index);
+    }
+
+    public void click(){
+        storage.click(index);
+    }
+
+    public void unclick(){
+        storage.unclick(index);
+    }
+
+    public boolean hasBeenClicked(){
+        return storage.hasBeenClicked(index);
+    }
+
+    public boolean isFlagged(){
+        return storage.isFlagged(index);
+    }
+
+    public void toggleFlag(){
+        storage.toggleFlag(index);
+    }
+
+    public void setNeighbooringMines(int neighbooringMines){
+        storage.setNeighbooringMines(index, neighbooringMines);
+    }
+
+    public int getNeighbooringMines(){
+        return storage.getNeighbooringMines(index);
+    }
+
+}
@@ -0,0 +1,678 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The class <b>EndlessBoard</b> is the model of an endless game: a board
+ * without borders, where the coordinates (x,y) of a dot can be any int.
+ *
+ * The board is divided in chunks of CHUNK x CHUNK dots. The mines of a
+ * chunk only depend on the seed of the board and on the coordinates of
+ * the chunk, so that a chunk is only generated when one of its dots is
+ * first used, and can be generated again at any time. The numbers of the
+ * dots of the border of a chunk are computed from the mines of the
+ * adjacent chunks, generated for the occasion if they are not loaded.
+ *
+ * At most maxChunks chunks are kept in memory, in least recently used
+ * order. An evicted chunk on which the player has played is written to a
+ * file, which only holds the state of its dots (covered, clicked and
+ * flagged bitsets); the other chunks are simply dropped. The memory used
+ * is thus bounded, and the file grows with the area explored only.
+ *
+ */
+
+public class EndlessBoard implements Closeable {
+
+    /**
+     * number of dots of the side of a chunk
+     */
+    public static final int CHUNK = 64;
+
+    /**
+     * largest number of dots opened by a single call to clearZone: with
+     * few mines, the zone around a dot with no neighbooring mine could
+     * be endless
+     */
+    public static final int MAX_ZONE = 1 << 16;
+
+    private static final int SHIFT = 6;
+
+    private static final int MASK = CHUNK - 1;
+
+    private static final int WORDS = CHUNK*CHUNK / 64;
+
+    private static final int RECORD = 3 * WORDS * 8;
+
+    private long seed;
+
+    private int minesPerChunk;
+
+    private Map<Long, Chunk> chunks;
+
+    private Map<Long, Long> stored = new HashMap<Long, Long>();
+
+    private FileChannel store;
+
+    private ByteBuffer record = ByteBuffer.allocateDirect(RECORD).order(ByteOrder.LITTLE_ENDIAN);
+
+    private PackedBoardStorage halo = new PackedBoardStorage(CHUNK+2, CHUNK+2);
+
+    private PackedBoardStorage scratch = new PackedBoardStorage(CHUNK, CHUNK);
+
+    private NeighbourCounter neighbourCounter = new NeighbourCounter();
+
+    private IndexList queueX = new IndexList(64);
+
+    private IndexList queueY = new IndexList(64);
+
+    private long lastKey;
+
+    private Chunk last;
+
+    private long numberUncovered;
+
+    private long numberFlagged;
+
+    private int numberOfSteps;
+
+    /**
+     * Constructor used for initializing an endless board
+     *
+     * @param seed
+     *            the seed of the board
+     * @param minesPerChunk
+     *            the number of mines of each chunk, between 0 and CHUNK*CHUNK
+     * @param maxChunks
+     *            the number of chunks kept in memory
+     * @param path
+     *            the file where evicted chunks are written; it is created
+     *            or emptied
+     * @throws IOException
+     *             if the file cannot be created
+     */
+    public EndlessBoard(long seed, int minesPerChunk, int maxChunks, Path path) throws IOException {
+
+        this.seed = seed;
+        this.minesPerChunk = minesPerChunk;
+        store = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        chunks = new LinkedHashMap<Long, Chunk>(2*maxChunks, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+                if (size() <= maxChunks) {
+                    return false;
+                }
+                if (eldest.getValue().touched) {
+                    write(eldest.getKey(), eldest.getValue());
+                }
+                return true;
+            }
+        };
+
+    }
+
+    /**
+     * returns true if the dot at location (x,y) is mined, false otherwise
+     *
+     * @param x
+     *            the x coordinate of the dot
+     * @param y
+     *            the y coordinate of the dot
+     * @return true if the dot is mined
+     */
+    public boolean isMined(int x, int y) {
+
+        return chunk(x, y).storage.isMined(local(x, y));
+
+    }
+
+    /**
+     * returns true if the dot at location (x,y) is covered, false otherwise
+     *
+     * @param x
+     *            the x coordinate of the dot
+     * @param y
+     *            the y coordinate of the dot
+     * @return true if the dot is covered
+     */
+    public boolean isCovered(int x, int y) {
+
+        return chunk(x, y).storage.isCovered(local(x, y));
+
+    }
+
+    /**
+     * returns true if the dot at location (x,y) is flagged, false otherwise
+     *
+     * @param x
+     *            the x coordinate of the dot
+     * @param y
+     *            the y coordinate of the dot
+     * @return true if the dot is flagged
+     */
+    public boolean isFlagged(int x, int y) {
+
+        return chunk(x, y).storage.isFlagged(local(x, y));
+
+    }
+
+    /**
+     * returns the number of neighbooring mines of the dot at location (x,y)
+     *
+     * @param x
+     *            the x coordinate of the dot
+     * @param y
+     *            the y coordinate of the dot
+     * @return the number of neighbooring mines
+     */
+    public int getNeighbooringMines(int x, int y) {
+
+        return chunk(x, y).storage.getNeighbooringMines(local(x, y));
+
+    }
+
+    /**
+     * Reveals the dot at location (x,y): if it is not mined, its zone is
+     * cleared. Unlike a finite game, the game goes on after a mine is
+     * uncovered; it is up to the caller to stop it.
+     *
+     * @param x
+     *            the x coordinate of the dot
+     * @param y
+     *            the y coordinate of the dot
+     * @return the result of the move
+     */
+    public MoveResult reveal(int x, int y) {
+
+        Chunk chunk = chunk(x, y);
+        int k = local(x, y);
+
+        if (!chunk.storage.isCovered(k) || chunk.storage.isFlagged(k)) {
+            return MoveResult.IGNORED;
+        }
+
+        numberOfSteps++;
+        chunk.storage.click(k);
+        if (chunk.storage.isMined(k)) {
+            uncoverDot(chunk, k);
+            return MoveResult.LOST;
+        }
+        clearZone(x, y);
+        return MoveResult.CONTINUE;
+
+    }
+
+    /**
+     * Flags the dot at location (x,y), or removes its flag
+     *
+     * @param x
+     *            the x coordinate of the dot
+     * @param y
+     *            the y coordinate of the dot
+     * @return the result of the move
+     */
+    public MoveResult flag(int x, int y) {
+
+        Chunk chunk = chunk(x, y);
+        int k = local(x, y);
+
+        if (!chunk.storage.isCovered(k)) {
+            return MoveResult.IGNORED;
+        }
+
+        chunk.storage.toggleFlag(k);
+        chunk.touched = true;
+        numberFlagged += chunk.storage.isFlagged(k) ? 1 : -1;
+        return MoveResult.CONTINUE;
+
+    }
+
+    /**
+     * Uncovers the dot at location (x,y) and, if it has no mine in its
+     * neighborood, the zone of such dots around it with its border of
+     * numbered dots, up to MAX_ZONE dots. The zone is opened breadth
+     * first, and each dot is uncovered when it is queued: a dot is never
+     * queued twice, and a zone cut at MAX_ZONE is the part of the zone
+     * nearest to (x,y), a square of about 256 dots wide around it.
+     *
+     * @param x
+     *            the x coordinate of the selected dot
+     * @param y
+     *            the y coordinate of the selected dot
+     * @return the number of dots uncovered
+     */
+    public int clearZone(int x, int y) {
+
+        int opened = 0;
+        int head = 0;
+        int i, j, mines;
+
+        queueX.clear();
+        queueY.clear();
+
+        mines = open(x, y);
+        if (mines < 0) {
+            return 0;
+        }
+        opened++;
+        if (mines == 0) {
+            queueX.push(x);
+            queueY.push(y);
+        }
+
+        while (head < queueX.size() && opened < MAX_ZONE) {
+            i = queueX.get(head);
+            j = queueY.get(head);
+            head++;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if ((dx != 0 || dy != 0) && opened < MAX_ZONE) {
+                        mines = open(i + dx, j + dy);
+                        if (mines >= 0) {
+                            opened++;
+                            if (mines == 0) {
+                                queueX.push(i + dx);
+                                queueY.push(j + dy);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return opened;
+
+    }
+
+    /**
+     * Getter method for the number of uncovered dots
+     *
+     * @return the number of dots uncovered since the board was created
+     */
+    public long getNumberUncovered() {
+
+        return numberUncovered;
+
+    }
+
+    /**
+     * Getter method for the number of flagged dots
+     *
+     * @return the number of dots currently flagged
+     */
+    public long getNumberFlagged() {
+
+        return numberFlagged;
+
+    }
+
+    /**
+     * Getter method for the number of steps
+     *
+     * @return the number of dots revealed by the player
+     */
+    public int getNumberOfSteps() {
+
+        return numberOfSteps;
+
+    }
+
+    /**
+     * Getter method for the number of chunks in memory
+     *
+     * @return the number of chunks loaded
+     */
+    public int getNumberOfLoadedChunks() {
+
+        return chunks.size();
+
+    }
+
+    /**
+     * Getter method for the number of chunks written to the file
+     *
+     * @return the number of chunks stored
+     */
+    public int getNumberOfStoredChunks() {
+
+        return stored.size();
+
+    }
+
+    /**
+     * Closes the file of the evicted chunks
+     *
+     * @throws IOException
+     *             if the file cannot be closed
+     */
+    public void close() throws IOException {
+
+        store.close();
+
+    }
+
+    /**
+     * Uncovers a covered dot of a chunk, and updates the counters
+     *
+     * @param chunk
+     *            the chunk of the dot
+     * @param k
+     *            the index of the dot in the chunk
+     */
+    private void uncoverDot(Chunk chunk, int k) {
+
+        if (chunk.storage.isFlagged(k)) {
+            chunk.storage.toggleFlag(k);
+            numberFlagged--;
+        }
+        chunk.storage.uncover(k);
+        chunk.touched = true;
+        numberUncovered++;
+
+    }
+
+    /**
+     * Uncovers the dot at location (x,y) of a zone, unless it is already
+     * uncovered, flagged or mined
+     *
+     * @param x
+     *            the x coordinate of the dot
+     * @param y
+     *            the y coordinate of the dot
+     * @return the number of neighbooring mines of the dot, or -1 if it
+     *  has not been uncovered
+     */
+    private int open(int x, int y) {
+
+        Chunk chunk = chunk(x, y);
+        int k = local(x, y);
+
+        if (!chunk.storage.isCovered(k) || chunk.storage.isFlagged(k) || chunk.storage.isMined(k)) {
+            return -1;
+        }
+        uncoverDot(chunk, k);
+        return chunk.storage.getNeighbooringMines(k);
+
+    }
+
+    /**
+     * returns the chunk of the dot at location (x,y), loading it if needed.
+     * The last chunk returned is kept aside, so that the dots of a same
+     * chunk, used one after the other, need no lookup of the map: it is
+     * the most recently used chunk, and thus never the one evicted.
+     *
+     * @param x
+     *            the x coordinate of the dot
+     * @param y
+     *            the y coordinate of the dot
+     * @return the chunk of the dot
+     */
+    private Chunk chunk(int x, int y) {
+
+        long key = key(x >> SHIFT, y >> SHIFT);
+
+        if (last != null && key == lastKey) {
+            return last;
+        }
+
+        Chunk chunk = chunks.get(key);
+
+        if (chunk == null) {
+            chunk = load(x >> SHIFT, y >> SHIFT);
+            chunks.put(key, chunk);
+        }
+        lastKey = key;
+        last = chunk;
+        return chunk;
+
+    }
+
+    /**
+     * Generates a chunk, with its numbers, and restores the state of its
+     * dots if it was written to the file
+     *
+     * @param cx
+     *            the x coordinate of the chunk
+     * @param cy
+     *            the y coordinate of the chunk
+     * @return the chunk
+     */
+    private Chunk load(int cx, int cy) {
+
+        Chunk chunk = new Chunk();
+        Long offset = stored.get(key(cx, cy));
+
+        placeMines(cx, cy, chunk.storage);
+        halo.clear();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                copyMines(dx == 0 && dy == 0 ? chunk.storage : minesOf(cx + dx, cy + dy), dx, dy);
+            }
+        }
+        neighbourCounter.count(halo, CHUNK+2, CHUNK+2, 1, CHUNK+1);
+        for (int i = 0; i < CHUNK; i++) {
+            for (int j = 0; j < CHUNK; j++) {
+                chunk.storage.setNeighbooringMines(i*CHUNK + j, halo.getNeighbooringMines((i+1)*(CHUNK+2) + j+1));
+            }
+        }
+
+        if (offset != null) {
+            read(offset, chunk);
+        }
+        return chunk;
+
+    }
+
+    /**
+     * Copies the mines of a chunk, or of the part of it next to the
+     * central chunk, into the halo
+     *
+     * @param mines
+     *            the storage holding the mines of the chunk
+     * @param dx
+     *            the position of the chunk relative to the central chunk
+     * @param dy
+     *            the position of the chunk relative to the central chunk
+     */
+    private void copyMines(BoardStorage mines, int dx, int dy) {
+
+        int hi, hj;
+
+        for (int i = 0; i < CHUNK; i++) {
+            hi = dx*CHUNK + i + 1;
+            if (hi < 0 || hi >= CHUNK+2) {
+                continue;
+            }
+            for (int j = 0; j < CHUNK; j++) {
+                hj = dy*CHUNK + j + 1;
+                if (hj >= 0 && hj < CHUNK+2 && mines.isMined(i*CHUNK + j)) {
+                    halo.setMined(hi*(CHUNK+2) + hj);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * returns a storage holding the mines of a chunk: the chunk itself if
+     * it is loaded, otherwise the mines are generated in a scratch storage
+     *
+     * @param cx
+     *            the x coordinate of the chunk
+     * @param cy
+     *            the y coordinate of the chunk
+     * @return the storage holding the mines
+     */
+    private BoardStorage minesOf(int cx, int cy) {
+
+        Chunk chunk = chunks.get(key(cx, cy));
+
+        if (chunk != null) {
+            return chunk.storage;
+        }
+        scratch.clear();
+        placeMines(cx, cy, scratch);
+        return scratch;
+
+    }
+
+    /**
+     * Places the mines of a chunk, from the seed of the board and the
+     * coordinates of the chunk only
+     *
+     * @param cx
+     *            the x coordinate of the chunk
+     * @param cy
+     *            the y coordinate of the chunk
+     * @param storage
+     *            the cleared storage of the chunk
+     */
+    private void placeMines(int cx, int cy, BoardStorage storage) {
+
+        MinePlacer.placeMines(storage, 0, CHUNK*CHUNK, minesPerChunk,
+            new SplitMixRandom(SplitMixRandom.mix(seed ^ SplitMixRandom.mix(key(cx, cy)))));
+
+    }
+
+    /**
+     * Writes the state of the dots of a chunk to the file, at its own
+     * place if it was already written
+     *
+     * @param key
+     *            the key of the chunk
+     * @param chunk
+     *            the chunk
+     */
+    private void write(long key, Chunk chunk) {
+
+        Long offset = stored.get(key);
+        long covered, clicked, flagged;
+        int k;
+
+        if (offset == null) {
+            offset = (long) stored.size() * RECORD;
+            stored.put(key, offset);
+        }
+
+        record.clear();
+        for (int w = 0; w < WORDS; w++) {
+            covered = 0;
+            clicked = 0;
+            flagged = 0;
+            for (int b = 0; b < 64; b++) {
+                k = 64*w + b;
+                covered |= (chunk.storage.isCovered(k) ? 1L : 0L) << b;
+                clicked |= (chunk.storage.hasBeenClicked(k) ? 1L : 0L) << b;
+                flagged |= (chunk.storage.isFlagged(k) ? 1L : 0L) << b;
+            }
+            record.putLong(8*w, covered);
+            record.putLong(8*(WORDS + w), clicked);
+            record.putLong(8*(2*WORDS + w), flagged);
+        }
+
+        try {
+            while (record.hasRemaining()) {
+                store.write(record, offset + record.position());
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+    }
+
+    /**
+     * Reads the state of the dots of a chunk from the file
+     *
+     * @param offset
+     *            the place of the chunk in the file
+     * @param chunk
+     *            the chunk, freshly generated
+     */
+    private void read(long offset, Chunk chunk) {
+
+        long covered, clicked, flagged;
+        int k;
+
+        record.clear();
+        try {
+            while (record.hasRemaining()) {
+                if (store.read(record, offset + record.position()) < 0) {
+                    throw new IOException("chunk file truncated");
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        for (int w = 0; w < WORDS; w++) {
+            covered = record.getLong(8*w);
+            clicked = record.getLong(8*(WORDS + w));
+            flagged = record.getLong(8*(2*WORDS + w));
+            for (int b = 0; b < 64; b++) {
+                k = 64*w + b;
+                if ((covered & (1L << b)) == 0) {
+                    chunk.storage.uncover(k);
+                }
+                if ((clicked & (1L << b)) != 0) {
+                    chunk.storage.click(k);
+                }
+                if ((flagged & (1L << b)) != 0) {
+                    chunk.storage.toggleFlag(k);
+                }
+            }
+        }
+        chunk.touched = true;
+
+    }
+
+    /**
+     * returns the index of the dot at location (x,y) in its chunk
+     *
+     * @param x
+     *            the x coordinate of the dot
+     * @param y
+     *            the y coordinate of the dot
+     * @return the index of the dot in the storage of its chunk
+     */
+    private static int local(int x, int y) {
+
+        return (x & MASK)*CHUNK + (y & MASK);
+
+    }
+
+    /**
+     * returns the key of a chunk in the maps
+     *
+     * @param cx
+     *            the x coordinate of the chunk
+     * @param cy
+     *            the y coordinate of the chunk
+     * @return the key of the chunk
+     */
+    private static long key(int cx, int cy) {
+
+        return (long) cx << 32 | (cy & 0xFFFFFFFFL);
+
+    }
+
+    /**
+     * The class <b>Chunk</b> holds the dots of a chunk in memory
+     */
+    private static class Chunk {
+
+        private PackedBoardStorage storage = new PackedBoardStorage(CHUNK, CHUNK);
+
+        private boolean touched;
+
+    }
+
+}
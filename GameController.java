@@ -1,6 +1,9 @@
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseEvent;
 import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.swing.*;
 
@@ -8,7 +11,16 @@ import javax.swing.*;
 /**
  * The class <b>GameController</b> is the controller of the game. It is a listener
  * of the view, and has a method <b>play</b> which computes the next
- * step of the game, and  updates model and view.
+ * step of the game, and  updates model and view. The rules of the game
+ * are applied by a <b>GameEngine</b>; the controller only adds what 
+ * needs a display: the view and the dialogs at the end of a game.
+ *
+ * The actions of the player are not played on the event dispatch thread:
+ * they are queued, in order, for a single game thread which is the only
+ * one to change the model, so that a large cascade never freezes the
+ * display and no click is lost while one is played. The view is told of
+ * the changes by the events of the model, and the dialogs are shown on
+ * the event dispatch thread.
  *
  */
 
@@ -17,13 +29,21 @@ public class GameController implements ActionListener {
 
     private GameModel gameModel;
 
+    private GameEngine gameEngine;
+
     private GameView gameView;
 
     private int width, heigth, numberOfMines;
 
+    private ExecutorService gameThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
-     * Constructor used for initializing the controller. It creates the game's view 
-     * and the game's model instances
+     * Constructor used for initializing the controller. It creates the game's view,
+     * the game's model and the game's engine instances
      * 
      * @param width
      *            the width of the board on which the game will be played
@@ -38,7 +58,9 @@ public class GameController implements ActionListener {
         this.heigth = height;
         this.numberOfMines = numberOfMines;
 
-        gameModel = new GameModel(width, heigth, numberOfMines);
+        gameModel = new GameModel.Builder(width, heigth, numberOfMines)
+            .packed(width*heigth > GameView.LARGE_BOARD).firstClickSafe(true).build();
+        gameEngine = new GameEngine(gameModel);
         gameView = new GameView(gameModel, this);
         gameView.update();
 
@@ -54,19 +76,12 @@ public class GameController implements ActionListener {
 
     public void actionPerformed(ActionEvent e) {
 
-        DotButton b;
-
         if (e.getActionCommand().equals("Reset")){
             reset();
         }
         if (e.getActionCommand().equals("Quit")){
             System.exit(0);
         }
-
-        if (e.getSource() instanceof DotButton){
-            b = (DotButton) e.getSource();
-            play(b.getColumn(), b.getRow());
-        }
     }
 
     /**
@@ -74,8 +89,7 @@ public class GameController implements ActionListener {
      */
     private void reset(){
 
-        gameModel.reset();
-        gameView.update();
+        gameThread.execute(() -> gameEngine.reset());
 
     }
 
@@ -86,99 +100,124 @@ public class GameController implements ActionListener {
      * that square was mined, or possibly uncover some other squares. 
      * It then checks if the game
      * is finished, and if so, congratulates the player, showing the number of
-     * moves, and gives to options: start a new game, or exit
+     * moves, and gives to options: start a new game, or exit. The move is
+     * queued, and played on the game thread.
      * @param width
      *            the selected column
      * @param heigth
      *            the selected line
      */
-    private void play(int width, int heigth){
+    void play(int width, int heigth){
 
-        gameModel.step();
-        gameModel.click(width, heigth);
-        gameModel.uncover(width, heigth);
+        gameThread.execute(() -> endOfAction(gameEngine.reveal(width, heigth)));
 
+    }
 
-            if(gameModel.isMined(width,heigth)){
-                gameModel.uncoverAll();
-                gameView.update();
+    /**
+     * <b>flag</b> is the method called when the user right-clicks on a
+     * square: it flags the square if it is covered and not flagged, and
+     * removes its flag otherwise.
+     * @param width
+     *            the selected column
+     * @param heigth
+     *            the selected line
+     */
+    void flag(int width, int heigth){
 
-                JFrame frame = new JFrame();
-                Object[] choices = {"Quit", "Play Again"};
-                int n =  JOptionPane.showOptionDialog(frame,
-                "Aouch, you lost in " + gameModel.getNumberOfSteps() + " moves! Would you like to play again?",
-                "Boom!", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE,
-                null, choices, choices[1]);
+        gameThread.execute(() -> endOfAction(gameEngine.flag(width, heigth)));
 
-                frame.setVisible(true);
+    }
 
-                if (n == JOptionPane.YES_OPTION){
-                    System.exit(0);
-                }
-                else if(n == JOptionPane.NO_OPTION){
-                    reset();
-                }
+    /**
+     * <b>chord</b> is the method called when the user middle-clicks on a
+     * square, or clicks on a square already uncovered: if the number of
+     * flags around the square is its number of neighbooring mines, all
+     * the other squares around it are uncovered at once.
+     * @param width
+     *            the selected column
+     * @param heigth
+     *            the selected line
+     */
+    void chord(int width, int heigth){
 
+        gameThread.execute(() -> endOfAction(gameEngine.chord(width, heigth)));
 
-            }
-            else if(gameModel.isFinished()){
-                gameModel.uncoverAll();
-                gameView.update();
+    }
 
-                JFrame frame = new JFrame();
-                Object[] choices = {"Quit", "Play Again"};
-                int n =  JOptionPane.showOptionDialog(frame,
-                "Congratulations! You won the game in " + gameModel.getNumberOfSteps() + " moves. Would you like to play again?",
-                "You won!", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE,
-                null, choices, choices[1]);
+    /**
+     * Dispatches a mouse click on a square: the left button plays on a
+     * covered square and chords on an uncovered one, the right button
+     * flags and the middle button chords. Used by the buttons of the view
+     * and by the <b>BoardCanvas</b> of large boards. Whether the square is
+     * covered is only known on the game thread, where the left button is
+     * dispatched.
+     * @param width
+     *            the selected column
+     * @param heigth
+     *            the selected line
+     * @param e
+     *            the MouseEvent
+     */
+    void click(int width, int heigth, MouseEvent e){
 
-                frame.setVisible(true);
+        if (SwingUtilities.isRightMouseButton(e)){
+            flag(width, heigth);
+        }
+        else if (SwingUtilities.isMiddleMouseButton(e)){
+            chord(width, heigth);
+        }
+        else if (SwingUtilities.isLeftMouseButton(e)){
+            gameThread.execute(() -> endOfAction(gameModel.isCovered(width, heigth) 
+                ? gameEngine.reveal(width, heigth) : gameEngine.chord(width, heigth)));
+        }
 
-                if (n == JOptionPane.YES_OPTION){
-                    System.exit(0);
-                }
-                else if(n == JOptionPane.NO_OPTION){
-                    reset();
-                }
+    }
 
-            }
-            else{ // if point is not a mine
-                //clearZone(gameModel.get(width, heigth));
-                gameView.update();
-            }
+    /**
+     * Shows the dialog of the end of the game if an action of the player
+     * won or lost it. Called on the game thread; the view has been told of
+     * the changes of the action by the model itself, before the dialog.
+     * @param result
+     *            the result of the action
+     */
+    private void endOfAction(MoveResult result){
 
+        if (result == MoveResult.LOST){
+            String message = "Aouch, you lost in " + gameModel.getNumberOfSteps() 
+                + " moves! Would you like to play again?";
+            SwingUtilities.invokeLater(() -> askToPlayAgain(message, "Boom!"));
+        }
+        else if (result == MoveResult.WON){
+            String message = "Congratulations! You won the game in " + gameModel.getNumberOfSteps() 
+                + " moves. Would you like to play again?";
+            SwingUtilities.invokeLater(() -> askToPlayAgain(message, "You won!"));
         }
 
+    }
 
-
-   /**
-     * <b>clearZone</b> is the method that computes which new dots should be ``uncovered'' 
-     * when a new square with no mine in its neighborood has been selected
-     * @param initialDot
-     *      the DotInfo object corresponding to the selected DotButton that
-     * had zero neighbouring mines
+    /**
+     * Shows the dialog of the end of a game, and quits or starts a new
+     * game according to the choice of the player. The dialog belongs to
+     * the frame of the view, which it blocks while it is shown.
+     * @param message
+     *            the message of the dialog
+     * @param title
+     *            the title of the dialog
      */
-    private void clearZone(DotInfo initialDot) {
-        
-        Stack<DotInfo> stack = new GenericArrayStack<DotInfo>(width*heigth);
-        DotInfo d;
-
-        stack.push(initialDot);
-
-        while (!stack.isEmpty()){
-            d = stack.pop();
-
-            for(int i =  Math.max(d.getX()-1, 0); i < Math.min(d.getX()+2, width); i++){
-                for(int j = Math.max(d.getY()-1, 0); j < Math.min(d.getY()+2, heigth); j++){
-                    if(gameModel.isCovered(i,j)){
-                        gameModel.uncover(i,j);
-                        if(gameModel.getNeighbooringMines(i,j)==0){
-                            stack.push(gameModel.get(i,j));
-                        }
-                    }
-                }
-            }
+    private void askToPlayAgain(String message, String title){
+
+        Object[] choices = {"Quit", "Play Again"};
+        int n =  JOptionPane.showOptionDialog(gameView.getFrame(), message, title, 
+            JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE,
+            null, choices, choices[1]);
+
+        if (n == JOptionPane.YES_OPTION){
+            System.exit(0);
         }
+        else if(n == JOptionPane.NO_OPTION){
+            reset();
+        }
+
     }
 
 
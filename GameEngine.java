@@ -0,0 +1,434 @@
+/**
+ * The class <b>GameEngine</b> applies the rules of the game to a
+ * <b>GameModel</b>: revealing a dot, flagging a dot and chording (revealing
+ * all the unflagged neighboors of a number whose mines are all flagged).
+ * It does not depend on Swing, so that games can be played without a
+ * display, for example by batch runs on a server. The Swing controller
+ * delegates the moves of the player to it.
+ *
+ * The moves played are recorded in a <b>MoveJournal</b>, from which they
+ * can be undone, redone, or replayed on another engine.
+ *
+ * A move on a dot out of the board throws an IllegalArgumentException:
+ * the dots are stored by index i*heigth+j, so such a move would otherwise
+ * be played on another dot of the board.
+ *
+ * Each action of the engine (a move, an undo, a redo or a reset) ends
+ * with <b>GameModel.publish</b>, so that the listeners of the model get
+ * the changes of the action at once.
+ *
+ */
+
+public class GameEngine {
+
+    private GameModel gameModel;
+
+    private boolean over;
+
+    private MoveJournal journal = new MoveJournal();
+
+    /**
+     * Constructor used for initializing the engine on a model
+     * 
+     * @param gameModel
+     *            the model of the game (already initialized)
+     */
+    public GameEngine(GameModel gameModel) {
+
+        this.gameModel = gameModel;
+        over = false;
+        journal.clear(gameModel.getSeed());
+
+    }
+
+    /**
+     * Getter method for the model
+     * 
+     * @return the model on which the engine plays
+     */
+    public GameModel getModel() {
+
+        return gameModel;
+
+    }
+
+    /**
+     * returns true once the game has been won or lost, false otherwise
+     * 
+     * @return true if the game is over
+     */
+    public boolean isOver() {
+
+        return over;
+
+    }
+
+    /**
+     * resets the model to start a new game
+     */
+    public void reset() {
+
+        gameModel.reset();
+        over = false;
+        journal.clear(gameModel.getSeed());
+        gameModel.publish();
+
+    }
+
+    /**
+     * resets the model to start a new game on the board of a seed
+     * 
+     * @param seed
+     *            the seed of the board
+     */
+    public void reset(long seed) {
+
+        gameModel.reset(seed);
+        over = false;
+        journal.clear(seed);
+        gameModel.publish();
+
+    }
+
+    /**
+     * resets the model to start a new game on the board of a seed, with
+     * no mine at location (i,j) nor around it, as <b>GameModel.reset</b>.
+     * The journal of such a game cannot be replayed from its seed.
+     * 
+     * @param seed
+     *            the seed of the board
+     * @param i
+     *            the x coordinate of the dot to keep free
+     * @param j
+     *            the y coordinate of the dot to keep free
+     */
+    public void reset(long seed, int i, int j) {
+
+        gameModel.reset(seed, i, j);
+        over = false;
+        journal.clear(seed);
+        gameModel.publish();
+
+    }
+
+    /**
+     * resets the model to start a new game on the given mines. The 
+     * journal of such a game cannot be replayed from its seed.
+     * 
+     * @param mines
+     *            the indices i*heigth+j of the mined dots
+     */
+    public void reset(IndexList mines) {
+
+        gameModel.reset(mines);
+        over = false;
+        journal.clear(gameModel.getSeed());
+        gameModel.publish();
+
+    }
+
+    /**
+     * Getter method for the journal of the moves of the current game
+     * 
+     * @return the journal
+     */
+    public MoveJournal getJournal() {
+
+        return journal;
+
+    }
+
+    /**
+     * Reveals the dot at location (i,j). If it is mined the game is lost,
+     * otherwise its zone is cleared. When the game ends, all the dots are 
+     * uncovered.
+     * 
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the result of the move
+     * @throws IllegalArgumentException
+     *             if the dot is not on the board
+     */
+    public MoveResult reveal(int i, int j) {
+
+        return play(MoveJournal.REVEAL, i, j);
+
+    }
+
+    /**
+     * Flags the dot at location (i,j), or removes its flag
+     * 
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the result of the move
+     * @throws IllegalArgumentException
+     *             if the dot is not on the board
+     */
+    public MoveResult flag(int i, int j) {
+
+        return play(MoveJournal.FLAG, i, j);
+
+    }
+
+    /**
+     * Chords on the dot at location (i,j): if it is an uncovered number
+     * and exactly that number of its neighboors are flagged, all its other
+     * covered neighboors are revealed.
+     * 
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the result of the move
+     * @throws IllegalArgumentException
+     *             if the dot is not on the board
+     */
+    public MoveResult chord(int i, int j) {
+
+        return play(MoveJournal.CHORD, i, j);
+
+    }
+
+    /**
+     * Undoes the last move played: only the dots changed by that move are
+     * put back in their previous state.
+     * 
+     * @return IGNORED if there is no move to undo, CONTINUE otherwise
+     */
+    public MoveResult undo() {
+
+        int n = journal.getPosition() - 1;
+
+        if (n < 0) {
+            return MoveResult.IGNORED;
+        }
+
+        gameModel.revert(journal.getFirstChange(n), journal.getLastChange(n));
+        if (journal.getOpcode(n) != MoveJournal.FLAG) {
+            gameModel.unstep();
+        }
+        journal.undone();
+        over = false;
+        gameModel.publish();
+        return MoveResult.CONTINUE;
+
+    }
+
+    /**
+     * Plays again the last move undone
+     * 
+     * @return the result of the move, or IGNORED if there is no move to redo
+     */
+    public MoveResult redo() {
+
+        int n = journal.getPosition();
+        int from = gameModel.getNumberOfChanges();
+        MoveResult result;
+
+        if (n == journal.size()) {
+            return MoveResult.IGNORED;
+        }
+
+        result = apply(journal.getOpcode(n), journal.getX(n), journal.getY(n));
+        journal.redone(from, gameModel.getNumberOfChanges());
+        gameModel.publish();
+        return result;
+
+    }
+
+    /**
+     * Plays again a recorded game: resets the model to the board of the
+     * seed of the journal, then plays the moves of the journal up to its
+     * position
+     * 
+     * @param moves
+     *            the journal to replay, which must not be the journal of
+     *            this engine (see <b>MoveJournal.copy</b>)
+     * @return the result of the last move
+     */
+    public MoveResult replay(MoveJournal moves) {
+
+        MoveResult result = MoveResult.IGNORED;
+
+        reset(moves.getSeed());
+        for (int n = 0; n < moves.getPosition(); n++) {
+            result = play(moves.getOpcode(n), moves.getX(n), moves.getY(n));
+        }
+        return result;
+
+    }
+
+    /**
+     * Plays a move and records it in the journal
+     * 
+     * @param opcode
+     *            the opcode of the move, as in <b>MoveJournal</b>
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the result of the move
+     * @throws IllegalArgumentException
+     *             if the dot is not on the board
+     */
+    private MoveResult play(int opcode, int i, int j) {
+
+        if (i < 0 || i >= gameModel.getWidth() || j < 0 || j >= gameModel.getHeigth()) {
+            throw new IllegalArgumentException("the dot (" + i + "," + j + ") is not on the " 
+                + gameModel.getWidth() + "x" + gameModel.getHeigth() + " board");
+        }
+
+        int from = gameModel.getNumberOfChanges();
+        MoveResult result = apply(opcode, i, j);
+
+        if (result != MoveResult.IGNORED) {
+            journal.record(opcode, i, j, from, gameModel.getNumberOfChanges());
+            gameModel.publish();
+        }
+        return result;
+
+    }
+
+    /**
+     * Plays a move, without recording it
+     * 
+     * @param opcode
+     *            the opcode of the move, as in <b>MoveJournal</b>
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the result of the move
+     */
+    private MoveResult apply(int opcode, int i, int j) {
+
+        switch (opcode) {
+            case MoveJournal.REVEAL:
+                return revealDot(i, j);
+            case MoveJournal.FLAG:
+                return flagDot(i, j);
+            case MoveJournal.CHORD:
+                return chordDot(i, j);
+            default:
+                throw new IllegalArgumentException("unknown move " + opcode);
+        }
+
+    }
+
+    /**
+     * Reveals the dot at location (i,j)
+     * 
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the result of the move
+     */
+    private MoveResult revealDot(int i, int j) {
+
+        if (over || !gameModel.isCovered(i, j) || gameModel.isFlagged(i, j)) {
+            return MoveResult.IGNORED;
+        }
+
+        gameModel.step();
+        return endOfMove(open(i, j));
+
+    }
+
+    /**
+     * Flags the dot at location (i,j), or removes its flag
+     * 
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the result of the move
+     */
+    private MoveResult flagDot(int i, int j) {
+
+        if (over || !gameModel.isCovered(i, j)) {
+            return MoveResult.IGNORED;
+        }
+
+        gameModel.toggleFlag(i, j);
+        return MoveResult.CONTINUE;
+
+    }
+
+    /**
+     * Chords on the dot at location (i,j)
+     * 
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the result of the move
+     */
+    private MoveResult chordDot(int i, int j) {
+
+        int minesUncovered;
+
+        if (over) {
+            return MoveResult.IGNORED;
+        }
+
+        minesUncovered = gameModel.chord(i, j);
+        if (minesUncovered < 0) {
+            return MoveResult.IGNORED;
+        }
+        gameModel.step();
+        return endOfMove(minesUncovered > 0);
+
+    }
+
+    /**
+     * Clicks and uncovers the dot at location (i,j), and clears its zone
+     * if it is not mined
+     * 
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return true if the dot was mined
+     */
+    private boolean open(int i, int j) {
+
+        gameModel.click(i, j);
+        gameModel.uncover(i, j);
+        if (gameModel.isMined(i, j)) {
+            return true;
+        }
+        gameModel.clearZone(i, j);
+        return false;
+
+    }
+
+    /**
+     * Computes the result of a move that has been played, and uncovers
+     * the whole board if the game is over
+     * 
+     * @param lost
+     *            true if the move uncovered a mine
+     * @return the result of the move
+     */
+    private MoveResult endOfMove(boolean lost) {
+
+        if (lost) {
+            over = true;
+            gameModel.uncoverAll();
+            return MoveResult.LOST;
+        }
+        if (gameModel.isFinished()) {
+            over = true;
+            gameModel.uncoverAll();
+            return MoveResult.WON;
+        }
+        return MoveResult.CONTINUE;
+
+    }
+
+}
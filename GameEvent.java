@@ -0,0 +1,248 @@
+/**
+ * The class <b>GameEvent</b> is an event published by a <b>GameModel</b>
+ * to its <b>GameListener</b>s. The events are coalesced per action: an
+ * action publishes at most one event of each type, so that a large
+ * cascade is one REVEALED event holding all the dots it uncovered.
+ *
+ * An event is immutable. It holds the dots it is about, as indices
+ * i*heigth+j, with the state each dot had at the end of the action (its
+ * flags and its number of neighbooring mines, packed in a byte as by
+ * <b>PackedBoardStorage</b>), so that a listener running on another
+ * thread does not have to read the model.
+ *
+ */
+
+public class GameEvent {
+
+    /**
+     * The types of events
+     */
+    public enum Type {
+
+        /**
+         * the model has been reset: the whole board has changed
+         */
+        RESET,
+
+        /**
+         * dots have been uncovered
+         */
+        REVEALED,
+
+        /**
+         * dots have been flagged or unflagged
+         */
+        FLAGGED,
+
+        /**
+         * changes have been reverted: dots are covered, unclicked or
+         * flagged again
+         */
+        REVERTED,
+
+        /**
+         * the last safe dot has been uncovered
+         */
+        WON,
+
+        /**
+         * a mine has been clicked
+         */
+        LOST
+
+    }
+
+    /**
+     * the bits of the state holding the number of neighbooring mines
+     */
+    public static final int NEIGHBOORS = PackedBoardStorage.NEIGHBOORS;
+
+    /**
+     * the bit of the state of a mined dot
+     */
+    public static final int MINED = PackedBoardStorage.MINED;
+
+    /**
+     * the bit of the state of a covered dot
+     */
+    public static final int COVERED = PackedBoardStorage.COVERED;
+
+    /**
+     * the bit of the state of a clicked dot
+     */
+    public static final int CLICKED = PackedBoardStorage.CLICKED;
+
+    /**
+     * the bit of the state of a flagged dot
+     */
+    public static final int FLAGGED = PackedBoardStorage.FLAGGED;
+
+    private static final int[] NO_DOTS = new int[0];
+
+    private static final byte[] NO_STATES = new byte[0];
+
+    private final Type type;
+
+    private final int heigth;
+
+    private final int steps;
+
+    private final int[] dots;
+
+    private final byte[] states;
+
+    /**
+     * Constructor of an event about no dot in particular
+     *
+     * @param type
+     *            the type of the event
+     * @param heigth
+     *            the heigth of the board
+     * @param steps
+     *            the number of steps at the end of the action
+     */
+    GameEvent(Type type, int heigth, int steps) {
+
+        this(type, heigth, steps, NO_DOTS, NO_STATES);
+
+    }
+
+    /**
+     * Constructor of an event about some dots. The arrays belong to the
+     * event once it is built.
+     *
+     * @param type
+     *            the type of the event
+     * @param heigth
+     *            the heigth of the board
+     * @param steps
+     *            the number of steps at the end of the action
+     * @param dots
+     *            the indices of the dots
+     * @param states
+     *            the states of the dots
+     */
+    GameEvent(Type type, int heigth, int steps, int[] dots, byte[] states) {
+
+        this.type = type;
+        this.heigth = heigth;
+        this.steps = steps;
+        this.dots = dots;
+        this.states = states;
+
+    }
+
+    /**
+     * Getter method for the type of the event
+     *
+     * @return the type of the event
+     */
+    public Type getType() {
+
+        return type;
+
+    }
+
+    /**
+     * Getter method for the number of steps of the game at the end of
+     * the action
+     *
+     * @return the number of steps
+     */
+    public int getNumberOfSteps() {
+
+        return steps;
+
+    }
+
+    /**
+     * returns the number of dots of the event. A dot may appear more
+     * than once.
+     *
+     * @return the number of dots
+     */
+    public int size() {
+
+        return dots.length;
+
+    }
+
+    /**
+     * returns the index i*heigth+j of a dot of the event
+     *
+     * @param n
+     *            the number of the dot, between 0 and size()-1
+     * @return the index of the dot
+     */
+    public int getDot(int n) {
+
+        return dots[n];
+
+    }
+
+    /**
+     * returns the x coordinate of a dot of the event
+     *
+     * @param n
+     *            the number of the dot, between 0 and size()-1
+     * @return the x coordinate of the dot
+     */
+    public int getX(int n) {
+
+        return dots[n] / heigth;
+
+    }
+
+    /**
+     * returns the y coordinate of a dot of the event
+     *
+     * @param n
+     *            the number of the dot, between 0 and size()-1
+     * @return the y coordinate of the dot
+     */
+    public int getY(int n) {
+
+        return dots[n] % heigth;
+
+    }
+
+    /**
+     * returns the state of a dot of the event at the end of the action:
+     * its MINED, COVERED, CLICKED and FLAGGED bits and, in the low bits,
+     * its number of neighbooring mines
+     *
+     * @param n
+     *            the number of the dot, between 0 and size()-1
+     * @return the state of the dot
+     */
+    public int getState(int n) {
+
+        return states[n] & 0xFF;
+
+    }
+
+    /**
+     * returns the number of neighbooring mines of a dot of the event
+     *
+     * @param n
+     *            the number of the dot, between 0 and size()-1
+     * @return the number of neighbooring mines of the dot
+     */
+    public int getNeighbooringMines(int n) {
+
+        return states[n] & NEIGHBOORS;
+
+    }
+
+    /**
+     * Builds a String representation of the event, for debugging
+     *
+     * @return String representation of the event
+     */
+    public String toString() {
+
+        return type + " (" + dots.length + " dots, step " + steps + ")";
+
+    }
+
+}
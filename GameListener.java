@@ -0,0 +1,22 @@
+/**
+ * The interface <b>GameListener</b> is implemented by the objects that
+ * follow a <b>GameModel</b> without scanning its board: views, solvers,
+ * recorders of games or metrics. A listener is registered with
+ * <b>GameModel.addGameListener</b>, together with the executor on which
+ * its events are delivered.
+ *
+ */
+
+public interface GameListener {
+
+    /**
+     * Called once for each event published by the model. The events of
+     * an action are delivered one after the other, by the same task of
+     * the executor of the listener.
+     *
+     * @param event
+     *            the event
+     */
+    public abstract void gameChanged(GameEvent event);
+
+}
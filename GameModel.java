@@ -1,4 +1,10 @@
-import java.util.Random;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 /**
  * The class <b>GameModel</b> holds the model, the state of the systems. 
@@ -7,20 +13,89 @@ import java.util.Random;
  * or not, number of neighbooring mines...)
  * - the size of the board
  * - the number of steps since the last reset
+ * - the number of covered, flagged and uncovered safe dots, kept up 
+ * to date as the dots change so that they are available in constant time
+ * - the list of the dots that changed since the last reset, in the order
+ * of the changes, so that the view only needs to redraw these dots, and
+ * so that the changes of a move can be reverted to undo it
+ * - the seed from which the current board was generated
  *
  * The model provides all of this informations to the other classes trough 
  *  appropriate Getters. 
  * The controller can also update the model through Setters.
- * Finally, the model is also in charge of initializing the game
+ * Finally, the model is also in charge of initializing the game. A board
+ * is entirely determined by its size, its number of mines and its seed:
+ * resetting with the same seed gives the same board.
+ *
+ * With the firstClickSafe option, the mines are only placed when the
+ * first dot is clicked or uncovered, away from that dot and its 
+ * neighboors: the first click never loses, and a reset costs nothing
+ * more than clearing the board. The board then depends on the seed and
+ * on the first dot clicked.
+ *
+ * Boards of more than PARALLEL_GENERATION dots are generated on several 
+ * threads by a <b>ParallelBoardGenerator</b>; the board of a seed does
+ * not depend on the number of threads.
+ *
+ * Models can be created with one of the constructors, or with a 
+ * <b>GameModel.Builder</b> when more options are needed.
+ *
+ * The neighboors of the dots are given by the <b>Topology</b> of the
+ * board: the usual square grid by default, or a torus or a hexagonal 
+ * grid, chosen with the Builder.
+ *
+ * <b>GameListener</b>s can subscribe to the model instead of scanning
+ * the board. The changes are not sent one by one: whoever plays on the
+ * model (usually a <b>GameEngine</b>) calls <b>publish</b> at the end of
+ * each action, which sends the changes of the action as a few 
+ * <b>GameEvent</b>s, at most one of each type.
  *
  */
 public class GameModel {
 
-    private java.util.Random generator = new java.util.Random();
+    /**
+     * number of dots from which boards are generated in parallel
+     */
+    public static final int PARALLEL_GENERATION = 1 << 22;
+
+    private static final int CLICKED           = 0;
+    private static final int UNCOVERED         = 1;
+    private static final int FLAGGED_UNCOVERED = 2;
+    private static final int FLAG_TOGGLED      = 3;
+    private static final int REVERTED          = 4;
+
+    private static final GameEvent.Type[] EVENT_TYPES = 
+        {GameEvent.Type.REVERTED, GameEvent.Type.FLAGGED, GameEvent.Type.REVEALED};
+
+    private static final int NUMBER_OF_TYPES = GameEvent.Type.values().length;
+
+    private RandomGenerator generator;
+
+    private RandomGeneratorFactory<RandomGenerator> generatorFactory;
+
+    private long seedOfGame;
+
+    private long seedSequence;
 
     private int heigthOfGame;
 
-    private DotInfo[][] model;
+    private BoardStorage storage;
+
+    private Topology topology;
+
+    private NeighbourCounter neighbourCounter = new NeighbourCounter();
+
+    private ParallelBoardGenerator parallelGenerator;
+
+    private IndexList workStack = new IndexList(64);
+
+    private IndexList changes = new IndexList(64);
+
+    private IndexList changeKinds = new IndexList(64);
+
+    private int numberOfReverts;
+
+    private int numberOfResets;
 
     private int numberOfMines;
 
@@ -28,10 +103,28 @@ public class GameModel {
 
     private int numberUncovered;
 
+    private int numberUncoveredSafe;
+
+    private int numberFlagged;
+
     private int widthOfGame;
 
     private int minesAdded;
 
+    private boolean firstClickSafe;
+
+    private boolean pending;
+
+    private int[] zone;
+
+    private CopyOnWriteArrayList<Subscription> listeners = new CopyOnWriteArrayList<>();
+
+    private int changesPublished;
+
+    private int resetsPublished;
+
+    private boolean finishedPublished;
+
 
 
     /**
@@ -48,39 +141,453 @@ public class GameModel {
      */
     public GameModel(int width, int heigth, int numberOfMines) {
 
-        widthOfGame = width;
-        heigthOfGame = heigth;
-        this.numberOfMines = numberOfMines;
-        model = new DotInfo[widthOfGame][heigthOfGame];
+        this(width, heigth, numberOfMines, false);
+
+    }
+
+    /**
+     * Constructor to initialize the model to a given size of board,
+     * choosing how the board is stored. The packed storage uses one byte
+     * per dot instead of one <b>DotInfo</b> object per dot, and should be
+     * preferred for very large boards.
+     * 
+     * @param width
+     *            the width of the board
+     * 
+     * @param heigth
+     *            the heigth of the board
+     * 
+     * @param numberOfMines
+     *            the number of mines to hide in the board
+     *
+     * @param packed
+     *            true to use the packed storage, false to use DotInfo objects
+     */
+    public GameModel(int width, int heigth, int numberOfMines, boolean packed) {
+
+        this(new Builder(width, heigth, numberOfMines).packed(packed));
+
+    }
+
+    /**
+     * Constructor used by the <b>Builder</b>
+     * 
+     * @param builder
+     *            the builder holding the options of the model
+     */
+    private GameModel(Builder builder) {
+
+        widthOfGame = builder.width;
+        heigthOfGame = builder.heigth;
+        this.numberOfMines = builder.numberOfMines;
         minesAdded = 0;
 
-        reset();
+        if(builder.board != null){
+            storage = builder.board;
+        }
+        else if(builder.packed){
+            storage = new PackedBoardStorage(widthOfGame, heigthOfGame);
+        }
+        else{
+            storage = new ObjectBoardStorage(widthOfGame, heigthOfGame);
+        }
+
+        topology = builder.topology != null ? builder.topology : Topology.square(widthOfGame, heigthOfGame);
+        if(topology.getWidth() != widthOfGame || topology.getHeigth() != heigthOfGame){
+            throw new IllegalArgumentException("the topology is " + topology.getWidth() + "x" 
+                + topology.getHeigth() + ", not " + widthOfGame + "x" + heigthOfGame);
+        }
+        zone = new int[topology.getMaxNeighboors() + 1];
+
+        if(widthOfGame*heigthOfGame >= PARALLEL_GENERATION && topology.isSquare()){
+            parallelGenerator = new ParallelBoardGenerator(builder.pool != null 
+                ? builder.pool : ForkJoinPool.commonPool());
+        }
+
+        firstClickSafe = builder.firstClickSafe;
+        generatorFactory = builder.generatorFactory;
+        if(generatorFactory == null){
+            generator = new SplitMixRandom(0);
+        }
+
+        if(builder.board != null){
+            seedSequence = builder.seed;
+            restore(builder.seed, builder.steps);
+        }
+        else if(builder.seeded){
+            seedSequence = builder.seed;
+            reset(builder.seed);
+        }
+        else{
+            seedSequence = SplitMixRandom.mix(System.nanoTime());
+            reset();
+        }
+        resetsPublished = numberOfResets;
+        changesPublished = changes.size();
+        finishedPublished = isFinished();
 
     }
 
 
     /**
      * Resets the model to (re)start a game. The previous game (if there is one)
-     * is cleared up . 
+     * is cleared up . The storage of the board is reused, so that a reset 
+     * does not allocate any memory. The seed of the new board is the next
+     * value of the sequence of seeds of the model.
      */
     public void reset(){
         
-        model = new DotInfo[widthOfGame][heigthOfGame];
+        seedSequence = SplitMixRandom.mix(seedSequence + 1);
+        reset(seedSequence);
+
+    }
+
+    /**
+     * Resets the model to (re)start a game on the board generated from
+     * the given seed. The same seed always gives the same board (for a
+     * given size, number of mines and random generator). With the 
+     * firstClickSafe option, the mines are placed later, by the first
+     * click.
+     * 
+     * @param seed
+     *            the seed of the new board
+     */
+    public void reset(long seed){
+
+        seedGenerator(seed);
+        clearGame();
+
+        if(firstClickSafe){
+            minesAdded = Math.min(numberOfMines, widthOfGame*heigthOfGame);
+            pending = true;
+        }
+        else if(parallelGenerator != null){
+            minesAdded = Math.min(numberOfMines, widthOfGame*heigthOfGame);
+            parallelGenerator.generate(storage, widthOfGame, heigthOfGame, minesAdded, generator);
+        }
+        else{
+            this.addMines();
+            this.addNumbers();
+        }
+
+    }
+
+    /**
+     * Resets the model to (re)start a game on a board generated from the
+     * given seed, with no mine at location (i,j) nor around it. If there 
+     * are too many mines to keep the neighboors of (i,j) free, only (i,j)
+     * itself is kept free.
+     * 
+     * @param seed
+     *            the seed of the new board
+     * @param i
+     *            the x coordinate of the dot to keep free
+     * @param j
+     *            the y coordinate of the dot to keep free
+     */
+    public void reset(long seed, int i, int j){
+
+        seedGenerator(seed);
+        clearGame();
+        generateAround(i, j);
+
+    }
+
+    /**
+     * Resets the model to (re)start a game on a board whose mines are 
+     * given, for example by a board generator. Such a board cannot be 
+     * generated again from the seed returned by <b>getSeed</b>.
+     * 
+     * @param mines
+     *            the indices i*heigth+j of the mined dots
+     */
+    public void reset(IndexList mines){
+
+        clearGame();
+        pending = false;
+
+        for(int n=0; n<mines.size(); n++){
+            storage.setMined(mines.get(n));
+        }
+        minesAdded = mines.size();
+        this.addNumbers();
+
+    }
+
+    /**
+     * Starts the game on the board already held by the storage, as it 
+     * was when saved: the numbers and the counters are computed again 
+     * from the mined, covered and flagged dots. A board with no mine
+     * and no uncovered dot still waits for its first click.
+     * 
+     * @param seed
+     *            the seed of the board
+     * @param steps
+     *            the number of steps already played
+     */
+    private void restore(long seed, int steps){
+
+        int size = widthOfGame*heigthOfGame;
+
+        seedGenerator(seed);
+        changes.clear();
+        changeKinds.clear();
+        numberOfResets++;
+        numberOfSteps = steps;
+        minesAdded = 0;
+        numberUncovered = 0;
+        numberUncoveredSafe = 0;
+        numberFlagged = 0;
+
+        for(int k=0; k<size; k++){
+            if(storage.isMined(k)){
+                minesAdded++;
+            }
+            if(!storage.isCovered(k)){
+                numberUncovered++;
+                if(!storage.isMined(k)){
+                    numberUncoveredSafe++;
+                }
+            }
+            else if(storage.isFlagged(k)){
+                numberFlagged++;
+            }
+        }
+
+        pending = minesAdded == 0 && numberUncovered == 0 && numberOfMines > 0;
+        if(pending){
+            minesAdded = Math.min(numberOfMines, size);
+        }
+        else if(!storage.storesNeighbooringMines()){
+            return;
+        }
+        else if(parallelGenerator != null){
+            parallelGenerator.count(storage, widthOfGame, heigthOfGame);
+        }
+        else{
+            this.addNumbers();
+        }
+
+    }
+
+    /**
+     * Places the mines away from the dot (i,j) and its neighboors, and
+     * counts the neighbooring mines of each dot. Large boards are 
+     * generated in parallel, then the few mines of the zone of (i,j) are
+     * moved elsewhere.
+     * 
+     * @param i
+     *            the x coordinate of the dot to keep free
+     * @param j
+     *            the y coordinate of the dot to keep free
+     */
+    private void generateAround(int i, int j){
+
+        int size = widthOfGame*heigthOfGame;
+        int[] around = topology.offsets(i, j);
+        int zoneSize = 0;
+        int k;
+
+        pending = false;
+        zone[zoneSize++] = index(i, j);
+        for(int n=0; n<around.length; n++){
+            zone[zoneSize++] = index(i, j) + around[n];
+        }
+        java.util.Arrays.sort(zone, 0, zoneSize);
+        if(numberOfMines > size - zoneSize){
+            zone[0] = index(i, j);
+            zoneSize = numberOfMines < size ? 1 : 0;
+        }
+
+        if(parallelGenerator != null){
+            minesAdded = Math.min(numberOfMines, size);
+            parallelGenerator.generate(storage, widthOfGame, heigthOfGame, minesAdded, generator);
+            for(int n=0; n<zoneSize; n++){
+                if(storage.isMined(zone[n])){
+                    do{
+                        k = generator.nextInt(size);
+                    } while(storage.isMined(k) || isInZone(k, zoneSize));
+                    moveMine(zone[n], k);
+                }
+            }
+        }
+        else{
+            minesAdded = Math.min(numberOfMines, size - zoneSize);
+            MinePlacer.placeMinesAvoiding(storage, size, minesAdded, zone, zoneSize, generator);
+            this.addNumbers();
+        }
+
+    }
+
+    /**
+     * returns true if the dot is one of the first zoneSize dots of the
+     * zone kept free
+     * 
+     * @param k
+     *            the index of the dot
+     * @param zoneSize
+     *            the number of dots of the zone
+     * @return true if the dot is in the zone
+     */
+    private boolean isInZone(int k, int zoneSize){
 
-        for(int i=0; i<model.length; i++){
-            for(int j=0; j<model[i].length; j++){
-                model[i][j] = new DotInfo(i, j);
+        for(int n=0; n<zoneSize; n++){
+            if(zone[n] == k){
+                return true;
             }
         }
+        return false;
+
+    }
+
+    /**
+     * Moves a mine to a dot which is not mined, and updates the number 
+     * of neighbooring mines of the dots around both of them
+     * 
+     * @param from
+     *            the index of the mined dot
+     * @param to
+     *            the index of the dot to mine
+     */
+    private void moveMine(int from, int to){
+
+        storage.setMined(to);
+        storage.clearMine(from);
+        addToNeighboors(from, -1);
+        addToNeighboors(to, 1);
+
+    }
+
+    /**
+     * Adds a value to the number of neighbooring mines of the neighboors
+     * of a dot
+     * 
+     * @param k
+     *            the index of the dot
+     * @param value
+     *            the value to add
+     */
+    private void addToNeighboors(int k, int value){
+
+        int[] around = topology.offsets(k);
+        int n;
+
+        for(int m=0; m<around.length; m++){
+            n = k + around[m];
+            storage.setNeighbooringMines(n, storage.getNeighbooringMines(n) + value);
+        }
+
+    }
+
+    /**
+     * Places the mines if they were deferred to the first click
+     * 
+     * @param i
+     *            the x coordinate of the first dot clicked
+     * @param j
+     *            the y coordinate of the first dot clicked
+     */
+    private void generateIfPending(int i, int j){
+
+        if(pending){
+            generateAround(i, j);
+        }
+
+    }
+
+    /**
+     * Seeds the random generator for a new board
+     * 
+     * @param seed
+     *            the seed of the new board
+     */
+    private void seedGenerator(long seed){
+
+        seedOfGame = seed;
+        if(generatorFactory == null){
+            ((SplitMixRandom) generator).setSeed(seed);
+        }
+        else{
+            generator = generatorFactory.create(seed);
+        }
+
+    }
+
+    /**
+     * Clears the board and the state of the game, before new mines are
+     * placed
+     */
+    private void clearGame(){
+
+        storage.clear();
         minesAdded = 0;
+        numberUncovered = 0;
+        numberUncoveredSafe = 0;
+        numberFlagged = 0;
+        changes.clear();
+        changeKinds.clear();
+        numberOfResets++;
+        numberOfSteps = 0;
 
-        this.addMines();
-        this.addNumbers();
+    }
+
+
+    /**
+     * Getter method for the topology of the board
+     * 
+     * @return the topology, which gives the neighboors of each dot
+     */   
+    public Topology getTopology(){
         
-        numberOfSteps = 0;
+        return topology;
+
+    }
+
+    /**
+     * Getter method for the seed of the current board. Resetting the model
+     * with that seed generates the same board again.
+     * 
+     * @return the seed of the current board
+     */   
+    public long getSeed(){
+        
+        return seedOfGame;
+
+    }
+
+    /**
+     * returns true if the mines are placed by the first click, false if 
+     * they are placed by the reset
+     * 
+     * @return true for the firstClickSafe option
+     */
+    public boolean isFirstClickSafe(){
+
+        return firstClickSafe;
+
+    }
+
+    /**
+     * Getter method for the storage of the board, used to save it
+     * 
+     * @return the storage of the board
+     */
+    BoardStorage getStorage(){
+
+        return storage;
 
     }
 
+    /**
+     * Getter method for the number of mines hidden in the board
+     * 
+     * @return the number of mines of the current board
+     */   
+    public int getNumberOfMines(){
+        
+        return minesAdded;
+
+    }
 
     /**
      * Getter method for the heigth of the game
@@ -105,6 +612,21 @@ public class GameModel {
     }
 
 
+    /**
+     * returns the index used by the storage for the dot at location (i,j)
+     * 
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the index of the dot at location (i,j)
+     */   
+    private int index(int i, int j){
+
+        return i*heigthOfGame + j;
+
+    }
+
     /**
      * returns true if the dot at location (i,j) is mined, false otherwise
     * 
@@ -116,7 +638,7 @@ public class GameModel {
      */   
     public boolean isMined(int i, int j){
 
-        return model[i][j].isMined();
+        return storage.isMined(index(i, j));
 
     }
 
@@ -132,7 +654,7 @@ public class GameModel {
      */   
     public boolean hasBeenClicked(int i, int j){
 
-        return model[i][j].hasBeenClicked();
+        return storage.hasBeenClicked(index(i, j));
 
     }
 
@@ -148,7 +670,7 @@ public class GameModel {
      */   
     public boolean isBlank(int i, int j){
         
-        if (model[i][j].getNeighbooringMines()==0){
+        if (storage.getNeighbooringMines(index(i, j))==0){
             return true;
         }
         else{
@@ -167,7 +689,7 @@ public class GameModel {
      */   
     public boolean isCovered(int i, int j){
         
-        return model[i][j].isCovered();
+        return storage.isCovered(index(i, j));
 
     }
 
@@ -176,16 +698,11 @@ public class GameModel {
     */
     private void addMines(){
 
-        int i, j;
-        
-        while(minesAdded < numberOfMines){
-            i = generator.nextInt(widthOfGame);
-            j = generator.nextInt(heigthOfGame);
-            if(!model[i][j].isMined()){
-                model[i][j].setMined();
-                minesAdded++;
-            }
-        }
+        int size = widthOfGame*heigthOfGame;
+
+        minesAdded = Math.min(numberOfMines, size);
+        MinePlacer.placeMines(storage, 0, size, minesAdded, generator);
+
     }
 
     /**
@@ -193,230 +710,464 @@ public class GameModel {
     */
     private void addNumbers(){
 
-        int mines;
+        if(storage.storesNeighbooringMines()){
+            neighbourCounter.count(storage, topology);
+        }
 
-        for(int i=0; i<widthOfGame; i++){
-            for(int j=0; j<heigthOfGame; j++){
+    }
 
-                mines = 0;
+    /**
+     * returns the number of neighbooring mines os the dot  
+     * at location (i,j)
+     *
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the number of neighbooring mines at location (i,j)
+     */   
+    public int getNeighbooringMines(int i, int j){
+        
+        return storage.getNeighbooringMines(index(i, j));
 
-                if(i==0 && j==0){
-                    if (model[i+1][j].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i][j+1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j+1].isMined()){
-                        mines += 1;
-                    }
-                }
+    }
 
-                else if(i==0 && j==heigthOfGame-1){
-                    if (model[i][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j-1].isMined()){
-                        mines += 1;
-                    }
-                }
 
-                else if(i==widthOfGame-1 && j==0){
-                    if (model[i-1][j].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i-1][j+1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i][j+1].isMined()){
-                        mines += 1;
-                    }
-                }
 
-                else if(i==widthOfGame-1 && j==heigthOfGame-1){
-                    if (model[i][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i-1][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i-1][j].isMined()){
-                        mines += 1;
-                    }
-                }
+    /**
+     * Sets the status of the dot at location (i,j) to uncovered
+     * 
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     */   
+    public void uncover(int i, int j){
+        
+        generateIfPending(i, j);
+        uncoverDot(index(i, j));
 
-                else if(0<i && i<widthOfGame-1 && j==0){
+    }
 
-                    if (model[i-1][j].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i-1][j+1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i][j+1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j+1].isMined()){
-                        mines += 1;
-                    }
-                }
+    /**
+     * Sets the status of the dot at location (i,j) to clicked
+     * 
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     */   
+    public void click(int i, int j){
+        
+        int k = index(i, j);
 
-                else if(0<i && i<widthOfGame-1 && j==heigthOfGame-1){
-                    if (model[i-1][j].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i-1][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j].isMined()){
-                        mines += 1;
-                    }
-                }
+        generateIfPending(i, j);
+        if(!storage.hasBeenClicked(k)){
+            storage.click(k);
+            logChange(k, CLICKED);
+        }
 
-                else if(i==0 && j>0 && j<heigthOfGame-1){
-                    if (model[i][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j+1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i][j+1].isMined()){
-                        mines += 1;
-                    }
-                }
+    }
+    /**
+     * <b>clearZone</b> uncovers the dot at location (i,j) and, if it has no
+     * mine in its neighborood, the whole zone of such dots around it, 
+     * together with its border of numbered dots.
+     *
+     * The zone is filled line by line: the dots of a line are processed as
+     * a single span, and only the first dot of each span found on the 
+     * adjacent lines is pushed on the work stack. The work stack belongs
+     * to the model and is reused from one call to the next. On a torus or
+     * a hexagonal grid, the zone is filled dot by dot by <b>fillZone</b>.
+     * 
+     * @param i
+     *            the x coordinate of the selected dot
+     * @param j
+     *            the y coordinate of the selected dot
+     * @return the number of dots that were uncovered by this call
+     */   
+    public int clearZone(int i, int j){
 
-                else if(i==widthOfGame-1 && j>0 && j<heigthOfGame-1){
-                    if (model[i][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i-1][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i-1][j].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i-1][j+1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i][j+1].isMined()){
-                        mines += 1;
-                    }
+        int start = index(i, j);
+        int opened = 0;
+        int seed, line, first, low, high;
+
+        generateIfPending(i, j);
+        if(storage.isMined(start)){
+            return 0;
+        }
+        if(isOpenable(start)){
+            uncoverDot(start);
+            opened++;
+        }
+        if(storage.getNeighbooringMines(start) != 0){
+            return opened;
+        }
+        if(!topology.isSquare()){
+            return opened + fillZone(start);
+        }
+
+        workStack.clear();
+        workStack.push(start);
+
+        while(!workStack.isEmpty()){
+            seed = workStack.pop();
+            if(seed != start && !storage.isCovered(seed)){
+                continue;
+            }
+
+            line = seed / heigthOfGame;
+            first = line*heigthOfGame;
+
+            low = seed;
+            while(low > first && isCoveredBlank(low-1)){
+                low--;
+            }
+            high = seed;
+            while(high < first+heigthOfGame-1 && isCoveredBlank(high+1)){
+                high++;
+            }
+
+            if(low > first){
+                low--;
+            }
+            if(high < first+heigthOfGame-1){
+                high++;
+            }
+            for(int k=low; k<=high; k++){
+                if(isOpenable(k)){
+                    uncoverDot(k);
+                    opened++;
                 }
+            }
 
-                else{
-                    if (model[i][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i][j+1].isMined()){
-                        mines += 1;
-                    }
+            if(line > 0){
+                opened += scanLine(low - heigthOfGame, high - heigthOfGame);
+            }
+            if(line < widthOfGame-1){
+                opened += scanLine(low + heigthOfGame, high + heigthOfGame);
+            }
+        }
 
-                    if (model[i-1][j].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j].isMined()){
-                        mines += 1;
-                    }
+        return opened;
 
-                    if (model[i-1][j+1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j-1].isMined()){
-                        mines += 1;
-                    }
+    }
 
-                    if (model[i-1][j-1].isMined()){
-                        mines += 1;
-                    }
-                    if (model[i+1][j+1].isMined()){
-                        mines += 1;
+    /**
+     * Uncovers the zone of a blank dot already uncovered, dot by dot with
+     * the offsets of the topology, for the topologies on which the lines
+     * of <b>clearZone</b> do not apply
+     * 
+     * @param start
+     *            the index of the blank dot
+     * @return the number of dots that were uncovered
+     */   
+    private int fillZone(int start){
+
+        int opened = 0;
+        int[] around;
+        int seed, k;
+
+        workStack.clear();
+        workStack.push(start);
+
+        while(!workStack.isEmpty()){
+            seed = workStack.pop();
+            around = topology.offsets(seed);
+            for(int n=0; n<around.length; n++){
+                k = seed + around[n];
+                if(isOpenable(k)){
+                    uncoverDot(k);
+                    opened++;
+                    if(storage.getNeighbooringMines(k) == 0 && !storage.isMined(k)){
+                        workStack.push(k);
                     }
                 }
+            }
+        }
 
-                model[i][j].setNeighbooringMines(mines);
+        return opened;
+
+    }
+
+    /**
+     * Scans the dots of a line next to a span of <b>clearZone</b>: numbered
+     * dots are uncovered, and the first dot of each run of covered blank
+     * dots is pushed on the work stack.
+     * 
+     * @param low
+     *            the index of the first dot to scan
+     * @param high
+     *            the index of the last dot to scan
+     * @return the number of dots that were uncovered
+     */   
+    private int scanLine(int low, int high){
+
+        int opened = 0;
+        boolean inRun = false;
+
+        for(int k=low; k<=high; k++){
+            if(isCoveredBlank(k)){
+                if(!inRun){
+                    workStack.push(k);
+                    inRun = true;
+                }
+            }
+            else{
+                if(isOpenable(k)){
+                    uncoverDot(k);
+                    opened++;
+                }
+                inRun = false;
             }
         }
+
+        return opened;
+
     }
 
     /**
-     * returns the number of neighbooring mines os the dot  
-     * at location (i,j)
-     *
+     * returns true if the dot at the given index is covered, not flagged,
+     * and has no mine in its neighborood (nor is mined)
+     * 
+     * @param k
+     *            the index of the dot
+     * @return true if the dot is a covered blank dot
+     */   
+    private boolean isCoveredBlank(int k){
+
+        return isOpenable(k) && storage.getNeighbooringMines(k) == 0 
+            && !storage.isMined(k);
+
+    }
+
+    /**
+     * returns true if the dot at the given index is covered and not 
+     * flagged, that is, if <b>clearZone</b> may uncover it
+     * 
+     * @param k
+     *            the index of the dot
+     * @return true if the dot can be uncovered by clearZone
+     */   
+    private boolean isOpenable(int k){
+
+        return storage.isCovered(k) && !storage.isFlagged(k);
+
+    }
+
+    /**
+     * Uncovers the dot at the given index, if it is covered, and updates
+     * the counters. A flag on the dot is removed.
+     * 
+     * @param k
+     *            the index of the dot
+     */   
+    private void uncoverDot(int k){
+
+        if(!storage.isCovered(k)){
+            return;
+        }
+        if(storage.isFlagged(k)){
+            storage.toggleFlag(k);
+            numberFlagged--;
+            logChange(k, FLAGGED_UNCOVERED);
+        }
+        else{
+            logChange(k, UNCOVERED);
+        }
+        storage.uncover(k);
+        numberUncovered++;
+        if(!storage.isMined(k)){
+            numberUncoveredSafe++;
+        }
+
+    }
+
+    /**
+     * Chords on the dot at location (i,j): if it is an uncovered number 
+     * and exactly that number of its neighboors are flagged, all its other
+     * covered neighboors are clicked and uncovered, together with their
+     * zones. The whole chord is done by this single call, so that its 
+     * changes follow each other in the list of changes and the view 
+     * draws them at once.
+     * 
      * @param i
      *            the x coordinate of the dot
      * @param j
      *            the y coordinate of the dot
-     * @return the number of neighbooring mines at location (i,j)
-     */   
-    public int getNeighbooringMines(int i, int j){
-        
-        return model[i][j].getNeighbooringMines();
+     * @return the number of mines uncovered, or -1 if the dot cannot be
+     *  chorded
+     */
+    public int chord(int i, int j){
 
-    }
+        int k = index(i, j);
+        int[] around = topology.offsets(i, j);
+        int flags = 0;
+        int covered = 0;
+        int minesUncovered = 0;
+        int n;
 
+        if(storage.isCovered(k) || storage.isMined(k) || storage.getNeighbooringMines(k) == 0){
+            return -1;
+        }
+        for(int m=0; m<around.length; m++){
+            n = k + around[m];
+            if(storage.isFlagged(n)){
+                flags++;
+            }
+            else if(storage.isCovered(n)){
+                covered++;
+            }
+        }
+        if(flags != storage.getNeighbooringMines(k) || covered == 0){
+            return -1;
+        }
 
+        for(int m=0; m<around.length; m++){
+            n = k + around[m];
+            if(isOpenable(n)){
+                click(n / heigthOfGame, n % heigthOfGame);
+                uncoverDot(n);
+                if(storage.isMined(n)){
+                    minesUncovered++;
+                }
+                else{
+                    clearZone(n / heigthOfGame, n % heigthOfGame);
+                }
+            }
+        }
+        return minesUncovered;
+
+    }
+
+     /**
+     * Uncover all remaining covered dot
+     */   
+    public void uncoverAll(){
+        
+        for(int k=0; k<widthOfGame*heigthOfGame; k++){
+            uncoverDot(k);
+        }
+    }
 
     /**
-     * Sets the status of the dot at location (i,j) to uncovered
+     * Flags the dot at location (i,j) if it is not flagged, and removes
+     * its flag otherwise. Uncovered dots cannot be flagged.
      * 
      * @param i
      *            the x coordinate of the dot
      * @param j
      *            the y coordinate of the dot
+     * @return true if the dot is now flagged, false otherwise
      */   
-    public void uncover(int i, int j){
+    public boolean toggleFlag(int i, int j){
         
-        model[i][j].uncover();
+        int k = index(i, j);
+
+        if(!storage.isCovered(k)){
+            return false;
+        }
+        storage.toggleFlag(k);
+        logChange(k, FLAG_TOGGLED);
+        if(storage.isFlagged(k)){
+            numberFlagged++;
+            return true;
+        }
+        numberFlagged--;
+        return false;
 
     }
 
     /**
-     * Sets the status of the dot at location (i,j) to clicked
+     * returns true if the dot at location (i,j) is flagged, false otherwise
      * 
      * @param i
      *            the x coordinate of the dot
      * @param j
      *            the y coordinate of the dot
+     * @return the status of the dot at location (i,j)
      */   
-    public void click(int i, int j){
+    public boolean isFlagged(int i, int j){
+
+        return storage.isFlagged(index(i, j));
+
+    }
+
+    /**
+     * Getter method for the number of covered dots
+     * 
+     * @return the number of dots that are still covered
+     */   
+    public int getNumberCovered(){
         
-        model[i][j].click();
+        return widthOfGame*heigthOfGame - numberUncovered;
 
     }
-     /**
-     * Uncover all remaining covered dot
+
+    /**
+     * Getter method for the number of flagged dots
+     * 
+     * @return the number of dots that are currently flagged
      */   
-    public void uncoverAll(){
+    public int getNumberFlagged(){
         
-        for(int i=0; i<widthOfGame; i++){
-            for(int j=0; j<heigthOfGame; j++){
-                if (model[i][j].isCovered()){
-                    model[i][j].uncover();
-                }
-            }
-        }
+        return numberFlagged;
+
+    }
+
+    /**
+     * Getter method for the number of safe dots that are still covered.
+     * The game is won when it reaches zero.
+     * 
+     * @return the number of covered dots that are not mined
+     */   
+    public int getNumberRemainingSafe(){
+        
+        return widthOfGame*heigthOfGame - minesAdded - numberUncoveredSafe;
+
     }
 
  
 
+    /**
+     * Getter method for the number of resets of the model. A view can 
+     * compare it with the value it last saw to know that the whole board
+     * has changed.
+     * 
+     * @return the number of times the model has been reset
+     */   
+    public int getNumberOfResets(){
+        
+        return numberOfResets;
+
+    }
+
+    /**
+     * Getter method for the number of changes since the last reset. A dot
+     * changes when it is clicked, uncovered, flagged or unflagged; a dot can
+     * appear several times in the list of changes.
+     * 
+     * @return the number of changes since the last reset
+     */   
+    public int getNumberOfChanges(){
+        
+        return changes.size();
+
+    }
+
+    /**
+     * Returns the dot of the n-th change since the last reset, as the index
+     * i*heigth+j of the dot at location (i,j)
+     * 
+     * @param n
+     *            the number of the change, between 0 and getNumberOfChanges()-1
+     * @return the index of the dot that changed
+     */   
+    public int getChangedDot(int n){
+        
+        return changes.get(n);
+
+    }
+
     /**
      * Getter method for the current number of steps
      * 
@@ -439,11 +1190,11 @@ public class GameModel {
      * @param j
      *            the y coordinate of the dot
      *
-     * @return model[i][j]
+     * @return the DotInfo of the dot at location (i,j)
      */   
     public DotInfo get(int i, int j) {
         
-        return model[i][j];
+        return storage.get(index(i, j));
 
     }
 
@@ -458,45 +1209,558 @@ public class GameModel {
 
         
 
+    }
+
+    /**
+     * Cancels a step, when the move of that step is undone
+     */
+    public void unstep(){
+
+        numberOfSteps--;
+
+    }
+
+    /**
+     * Reverts the changes [from, to[ of the list of changes, last change
+     * first, so that the dots are back in the state they had before change
+     * number from. The changes must be the last ones not already reverted,
+     * as when moves are undone one after the other. Each dot reverted is
+     * added again to the list of changes, so that the views redraw it.
+     * 
+     * @param from
+     *            the number of the first change to revert
+     * @param to
+     *            the number following the last change to revert
+     */
+    public void revert(int from, int to){
+
+        int k;
+
+        for(int n=to-1; n>=from; n--){
+            k = changes.get(n);
+            switch(changeKinds.get(n)){
+                case CLICKED:
+                    storage.unclick(k);
+                    break;
+                case FLAGGED_UNCOVERED:
+                    coverDot(k);
+                    storage.toggleFlag(k);
+                    numberFlagged++;
+                    break;
+                case UNCOVERED:
+                    coverDot(k);
+                    break;
+                case FLAG_TOGGLED:
+                    storage.toggleFlag(k);
+                    numberFlagged += storage.isFlagged(k) ? 1 : -1;
+                    break;
+                default:
+                    throw new IllegalArgumentException("change " + n + " is already a revert");
+            }
+            logChange(k, REVERTED);
+        }
+        numberOfReverts++;
+
+    }
+
+    /**
+     * Getter method for the number of calls to <b>revert</b> since the 
+     * model was created. A solver can compare it with the value it last
+     * saw to know that some of its deductions may rely on dots that are
+     * covered again.
+     * 
+     * @return the number of reverts
+     */
+    public int getNumberOfReverts(){
+
+        return numberOfReverts;
+
+    }
+
+    /**
+     * Covers an uncovered dot again, and updates the counters
+     * 
+     * @param k
+     *            the index of the dot
+     */
+    private void coverDot(int k){
+
+        storage.cover(k);
+        numberUncovered--;
+        if(!storage.isMined(k)){
+            numberUncoveredSafe--;
+        }
+
+    }
+
+    /**
+     * Adds a change to the list of changes
+     * 
+     * @param k
+     *            the index of the dot that changed
+     * @param kind
+     *            the kind of the change, to revert it
+     */
+    private void logChange(int k, int kind){
+
+        changes.push(k);
+        changeKinds.push(kind);
+
     }
  
+    /**
+     * Subscribes a listener to the events of the model. The events are
+     * delivered by tasks run on the given executor, one task per action:
+     * the executor must run its tasks in order, as a single thread 
+     * executor does. A Swing view passes SwingUtilities::invokeLater, so
+     * that its events are delivered on the event dispatch thread; 
+     * Runnable::run delivers them at once, on the thread which publishes.
+     * 
+     * @param listener
+     *            the listener
+     * @param executor
+     *            the executor which delivers the events to the listener
+     */
+    public void addGameListener(GameListener listener, Executor executor){
+
+        listeners.add(new Subscription(listener, executor));
+
+    }
+
+    /**
+     * Unsubscribes a listener. Events already handed to its executor may
+     * still be delivered.
+     * 
+     * @param listener
+     *            the listener
+     */
+    public void removeGameListener(GameListener listener){
+
+        listeners.removeIf(subscription -> subscription.listener == listener);
+
+    }
+
+    /**
+     * Ends an action: sends to the listeners the events of all the
+     * changes since the previous call, at most one event of each type. 
+     * The RESET event comes first, then the REVERTED, FLAGGED and 
+     * REVEALED events, then WON or LOST. It costs nothing when there is no
+     * listener.
+     */
+    public void publish(){
+
+        GameEvent[] events;
+        int[] sizes;
+        boolean lost = false;
+        int number = 0;
+        int from, to, kind;
+
+        if(resetsPublished != numberOfResets){
+            changesPublished = 0;
+            finishedPublished = false;
+        }
+        from = changesPublished;
+        to = changes.size();
+
+        if(!listeners.isEmpty()){
+            events = new GameEvent[NUMBER_OF_TYPES];
+            sizes = new int[EVENT_TYPES.length];
+            if(resetsPublished != numberOfResets){
+                events[number++] = new GameEvent(GameEvent.Type.RESET, heigthOfGame, numberOfSteps);
+            }
+            for(int n=from; n<to; n++){
+                kind = eventOf(changeKinds.get(n));
+                if(kind >= 0){
+                    sizes[kind]++;
+                }
+                else if(storage.isMined(changes.get(n))){
+                    lost = true;
+                }
+            }
+            for(kind=0; kind<sizes.length; kind++){
+                if(sizes[kind] > 0){
+                    events[number++] = dotsEvent(kind, sizes[kind], from, to);
+                }
+            }
+            if(lost){
+                events[number++] = new GameEvent(GameEvent.Type.LOST, heigthOfGame, numberOfSteps);
+            }
+            else if(isFinished() && !finishedPublished){
+                events[number++] = new GameEvent(GameEvent.Type.WON, heigthOfGame, numberOfSteps);
+            }
+            if(number > 0){
+                deliver(java.util.Arrays.copyOf(events, number));
+            }
+        }
+
+        changesPublished = to;
+        resetsPublished = numberOfResets;
+        finishedPublished = isFinished();
+
+    }
+
+    /**
+     * returns the event that reports a kind of change: 0 for REVERTED, 1
+     * for FLAGGED and 2 for REVEALED, or -1 for a click, which is only 
+     * reported by the event of the uncovering that always follows it
+     * 
+     * @param kind
+     *            the kind of the change
+     * @return the number of the event, or -1
+     */
+    private static int eventOf(int kind){
+
+        switch(kind){
+            case REVERTED:
+                return 0;
+            case FLAG_TOGGLED:
+                return 1;
+            case UNCOVERED:
+            case FLAGGED_UNCOVERED:
+                return 2;
+            default:
+                return -1;
+        }
+
+    }
+
+    /**
+     * Builds the event of the changes [from, to[ of the list of changes 
+     * which are reported by a given event
+     * 
+     * @param event
+     *            the number of the event, as returned by eventOf
+     * @param size
+     *            the number of these changes
+     * @param from
+     *            the number of the first change of the action
+     * @param to
+     *            the number following the last change of the action
+     * @return the event
+     */
+    private GameEvent dotsEvent(int event, int size, int from, int to){
+
+        int[] dots = new int[size];
+        byte[] states = new byte[size];
+        int m = 0;
+
+        for(int n=from; n<to; n++){
+            if(eventOf(changeKinds.get(n)) == event){
+                dots[m] = changes.get(n);
+                states[m] = (byte) getState(dots[m]);
+                m++;
+            }
+        }
+        return new GameEvent(EVENT_TYPES[event], heigthOfGame, numberOfSteps, dots, states);
+
+    }
+
+    /**
+     * Hands the events of an action to the executor of each listener
+     * 
+     * @param events
+     *            the events of the action
+     */
+    private void deliver(GameEvent[] events){
+
+        for(Subscription subscription : listeners){
+            subscription.executor.execute(() -> {
+                for(GameEvent event : events){
+                    subscription.listener.gameChanged(event);
+                }
+            });
+        }
+
+    }
+
+    /**
+     * returns the flags of a dot and its number of neighbooring mines,
+     * packed in one byte as by <b>PackedBoardStorage</b>
+     * 
+     * @param k
+     *            the index of the dot
+     * @return the state of the dot
+     */
+    int getState(int k){
+
+        if(storage instanceof PackedBoardStorage){
+            return ((PackedBoardStorage) storage).getState(k);
+        }
+        return (storage.isMined(k) ? GameEvent.MINED : 0)
+            | (storage.isCovered(k) ? GameEvent.COVERED : 0)
+            | (storage.hasBeenClicked(k) ? GameEvent.CLICKED : 0)
+            | (storage.isFlagged(k) ? GameEvent.FLAGGED : 0)
+            | storage.getNeighbooringMines(k);
+
+    }
+
    /**
      * The metod <b>isFinished</b> returns true iff the game is finished, that
-     * is, all the nonmined dots are uncovered.
+     * is, all the nonmined dots are uncovered. It runs in constant time,
+     * using the counter of uncovered safe dots.
      *
      * @return true if the game is finished, false otherwise
      */
     public boolean isFinished(){
         
+        return getNumberRemainingSafe() == 0;
 
-        for(int i=0; i<widthOfGame; i++){
-            for(int j=0; j<heigthOfGame; j++){
-                if (!isMined(i, j) && model[i][j].isCovered()){
-                    return false;
-                }
-            }
-        }
-
-        return true;
     }
 
 
    /**
-     * Builds a String representation of the model
+     * Builds a String representation of the model, in the verbose format
+     * of <b>dump</b>
      *
      * @return String representation of the model
      */
     public String toString(){
         
-        String stateOfModel = "";
+        StringBuilder stateOfModel = new StringBuilder();
+
+        try{
+            dump(stateOfModel, true);
+        }
+        catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+        return stateOfModel.toString();
+
+    }
+
+    /**
+     * Writes the board to a stream, dot after dot, without building it
+     * in memory first. The verbose format has one line per dot:
+     * "(i, j): Mined(true), Number of Neighboring Mines(3)". The compact
+     * format has one line per value of i, with one character per dot:
+     * '*' for a mine, otherwise its number of neighbooring mines.
+     *
+     * @param out
+     *            the stream to write to
+     * @param verbose
+     *            true for the verbose format, false for the compact one
+     * @throws IOException
+     *             if the stream cannot be written
+     */
+    public void dump(Appendable out, boolean verbose) throws IOException{
+
+        int k;
 
         for (int i = 0; i < widthOfGame; i++){
             for (int j = 0; j < heigthOfGame; j++){
-                stateOfModel = stateOfModel + "(" + i + ", " + j + "): Mined("+this.isMined(i,j)+"), Number of Neighboring Mines("+this.getNeighbooringMines(i,j)+")\n";
+                k = index(i, j);
+                if(verbose){
+                    out.append('(').append(Integer.toString(i)).append(", ")
+                        .append(Integer.toString(j)).append("): Mined(")
+                        .append(storage.isMined(k) ? "true" : "false")
+                        .append("), Number of Neighboring Mines(")
+                        .append(Integer.toString(storage.getNeighbooringMines(k))).append(")\n");
+                }
+                else{
+                    out.append(storage.isMined(k) ? '*' : (char) ('0' + storage.getNeighbooringMines(k)));
+                }
+            }
+            if(!verbose){
+                out.append('\n');
             }
         }
 
-        return stateOfModel;
+    }
+
+
+    /**
+     * A listener with the executor on which its events are delivered
+     */
+    private static class Subscription {
+
+        private final GameListener listener;
+
+        private final Executor executor;
+
+        Subscription(GameListener listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+    }
+
+    /**
+     * The class <b>Builder</b> collects the options of a <b>GameModel</b>
+     * before creating it. For example:
+     * <pre>
+     * GameModel model = new GameModel.Builder(100, 100, 1500)
+     *     .packed(true)
+     *     .seed(42)
+     *     .build();
+     * </pre>
+     */
+    public static class Builder {
+
+        private int width, heigth, numberOfMines;
+
+        private boolean packed;
+
+        private boolean seeded;
+
+        private long seed;
+
+        private RandomGeneratorFactory<RandomGenerator> generatorFactory;
+
+        private ForkJoinPool pool;
+
+        private boolean firstClickSafe;
+
+        private BoardStorage board;
+
+        private int steps;
+
+        private Topology topology;
+
+        /**
+         * Constructor used to start building a model of a given size
+         * 
+         * @param width
+         *            the width of the board
+         * @param heigth
+         *            the heigth of the board
+         * @param numberOfMines
+         *            the number of mines to hide in the board
+         */
+        public Builder(int width, int heigth, int numberOfMines) {
+
+            this.width = width;
+            this.heigth = heigth;
+            this.numberOfMines = numberOfMines;
+
+        }
+
+        /**
+         * Selects the packed storage (one byte per dot) instead of
+         * DotInfo objects
+         * 
+         * @param packed
+         *            true to use the packed storage
+         * @return this builder
+         */
+        public Builder packed(boolean packed) {
+
+            this.packed = packed;
+            return this;
+
+        }
+
+        /**
+         * Sets the seed of the first board. The boards generated by the
+         * following resets are also determined by this seed.
+         * 
+         * @param seed
+         *            the seed of the first board
+         * @return this builder
+         */
+        public Builder seed(long seed) {
+
+            this.seeded = true;
+            this.seed = seed;
+            return this;
+
+        }
+
+        /**
+         * Selects the algorithm of the random generator used to place the 
+         * mines, by its name in <b>RandomGeneratorFactory</b> (for example
+         * "L64X128MixRandom"). By default, a <b>SplitMixRandom</b> is used; 
+         * it is the only choice for which a reset allocates no memory.
+         * 
+         * @param name
+         *            the name of the algorithm
+         * @return this builder
+         */
+        public Builder randomGenerator(String name) {
+
+            this.generatorFactory = RandomGeneratorFactory.of(name);
+            return this;
+
+        }
+
+        /**
+         * Sets the pool used to generate large boards (of at least 
+         * PARALLEL_GENERATION dots). By default, the common ForkJoinPool
+         * is used. The pool belongs to the caller, which may share it
+         * between models and shuts it down once they are no longer used;
+         * the model never does. The boards do not depend on this choice.
+         * 
+         * @param pool
+         *            the pool running the generation
+         * @return this builder
+         */
+        public Builder pool(ForkJoinPool pool) {
+
+            this.pool = pool;
+            return this;
+
+        }
+
+        /**
+         * Sets the topology of the board, which must have the size of
+         * the board. By default, the board is the bounded square grid.
+         * Boards of other topologies are never generated in parallel.
+         * 
+         * @param topology
+         *            the topology of the board
+         * @return this builder
+         */
+        public Builder topology(Topology topology) {
+
+            this.topology = topology;
+            return this;
+
+        }
+
+        /**
+         * Defers the placement of the mines to the first click, which
+         * then never hits a mine
+         * 
+         * @param firstClickSafe
+         *            true to place the mines at the first click
+         * @return this builder
+         */
+        public Builder firstClickSafe(boolean firstClickSafe) {
+
+            this.firstClickSafe = firstClickSafe;
+            return this;
+
+        }
+
+        /**
+         * Starts the model on a board already held by a storage, for 
+         * example read from a file by <b>BoardFile</b>, instead of 
+         * generating one. The seed set by <b>seed</b> is taken as the 
+         * seed of that board; the following boards are generated as usual.
+         * 
+         * @param storage
+         *            the storage of the board, of the size of the model
+         * @param steps
+         *            the number of steps already played on the board
+         * @return this builder
+         */
+        public Builder board(BoardStorage storage, int steps) {
+
+            this.board = storage;
+            this.steps = steps;
+            return this;
+
+        }
+
+        /**
+         * Creates the model
+         * 
+         * @return the new model, ready to play
+         */
+        public GameModel build() {
+
+            return new GameModel(this);
+
+        }
 
     }
-}
\ No newline at end of file
+}
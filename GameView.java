@@ -1,26 +1,68 @@
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 import javax.swing.*;
 
 /**
  * The class <b>GameView</b> provides the current view of the entire Game. It extends
  * <b>JFrame</b> and lays out a matrix of <b>DotButton</b> (the actual game) and 
- * two instances of JButton. The action listener for the buttons is the controller.
+ * two instances of JButton. The action listener for the buttons is the controller;
+ * the clicks on the dots, of any mouse button, are forwarded to its method
+ * <b>click</b>.
+ *
+ * Boards of more than LARGE_BOARD dots are displayed with a single 
+ * <b>BoardCanvas</b> in a scroll pane instead of the matrix of buttons.
+ *
+ * The view listens to the model: the events of each action are delivered
+ * on the event dispatch thread, and only the dots they hold are redrawn.
+ * The model is played on the thread of the controller, so the view never
+ * reads it once created: it keeps its own copy of the icon of each dot in
+ * a <b>DotIcons</b>, updated from the states held by the events.
  *
  */
 
-public class GameView extends JFrame {
+public class GameView extends JFrame implements GameListener {
+
+    /**
+     * number of dots above which a board is considered large
+     */
+    public static final int LARGE_BOARD = 200*200;
+
+    private static final int CANVAS_DOT_SIZE = 16;
 
     private DotButton[][] board;
 
+    private BoardCanvas canvas;
+
     private GameController gameController;
 
     private GameModel gameModel;
 
     private javax.swing.JLabel nbreOfStepsLabel;
 
+    private JFrame myFrame;
+
+    private DotIcons icons;
+
+    /**
+     * when the system property minesweeper.timing is set to true, the
+     * time spent in each update is printed on the standard output
+     */
+    private static final boolean TIMING = Boolean.getBoolean("minesweeper.timing");
+
+    /**
+     * when the system property minesweeper.debug is set to true, the
+     * board is dumped on the standard output when the view is created
+     */
+    private static final boolean DEBUG = Boolean.getBoolean("minesweeper.debug");
+
     /**
      * Constructor used for initializing the Frame
      * 
@@ -37,10 +79,11 @@ public class GameView extends JFrame {
         int width, heigth;
         width = gameModel.getWidth();
         heigth = gameModel.getHeigth();
-        board = new DotButton[width][heigth];
 
 
-        JFrame myFrame = new JFrame();
+        icons = new DotIcons(gameModel);
+
+        myFrame = new JFrame();
         myFrame.setTitle("Minesweeper");
         myFrame.setSize(600, 420);
         setBackground(Color.white);
@@ -48,17 +91,36 @@ public class GameView extends JFrame {
 
         // PANEL FOR GAME
 
-        JPanel grid = new JPanel(new GridLayout(width, heigth));
-        for(int i=0; i<board.length; i++){
-            for(int j=0; j<board[i].length; j++){
-                board[i][j] = new DotButton(i, j, 11);
-                board[i][j].setBorder(null);
-                board[i][j].addActionListener(gameController);
-                grid.add(board[i][j]);
+        if(width*heigth > LARGE_BOARD){
+            canvas = new BoardCanvas(gameModel, this, gameController, CANVAS_DOT_SIZE);
+            JScrollPane scrollPane = new JScrollPane(canvas);
+            scrollPane.getVerticalScrollBar().setUnitIncrement(CANVAS_DOT_SIZE);
+            scrollPane.getHorizontalScrollBar().setUnitIncrement(CANVAS_DOT_SIZE);
+            scrollPane.setBorder(BorderFactory.createLineBorder(Color.black));
+            myFrame.add(scrollPane, BorderLayout.CENTER);
+        }
+        else{
+            board = new DotButton[width][heigth];
+            MouseAdapter dotListener = new MouseAdapter() {
+                public void mouseReleased(MouseEvent e) {
+                    DotButton b = (DotButton) e.getSource();
+                    if (b.contains(e.getPoint())) {
+                        gameController.click(b.getColumn(), b.getRow(), e);
+                    }
+                }
+            };
+            JPanel grid = new JPanel(new GridLayout(width, heigth));
+            for(int i=0; i<board.length; i++){
+                for(int j=0; j<board[i].length; j++){
+                    board[i][j] = new DotButton(i, j, 11);
+                    board[i][j].setBorder(null);
+                    board[i][j].addMouseListener(dotListener);
+                    grid.add(board[i][j]);
+                }
             }
+            grid.setBorder(BorderFactory.createLineBorder(Color.black));
+            myFrame.add(grid, BorderLayout.CENTER);
         }
-        grid.setBorder(BorderFactory.createLineBorder(Color.black));
-        myFrame.add(grid, BorderLayout.CENTER);
 
         // BOTTOM PANEL (quit, reset, #turns)
         JPanel myPanel = new JPanel();
@@ -78,7 +140,18 @@ public class GameView extends JFrame {
         quit.addActionListener(gameController);
         myPanel.add(quit);
 
-        System.out.println(gameModel.toString());
+        gameModel.addGameListener(this, SwingUtilities::invokeLater);
+
+        if(DEBUG){
+            try{
+                Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+                gameModel.dump(out, true);
+                out.flush();
+            }
+            catch(IOException e){
+                e.printStackTrace();
+            }
+        }
 
 
         pack();
@@ -88,32 +161,115 @@ public class GameView extends JFrame {
     }
 
     /**
-     * update the status of the board's DotButton instances based 
-     * on the current game model, then redraws the view
+     * Getter method for the frame of the view, the parent of the dialogs
+     * 
+     * @return the frame shown on the screen
+     */
+
+    public JFrame getFrame(){
+
+        return myFrame;
+
+    }
+
+    /**
+     * update the status of all the board's DotButton instances based 
+     * on the icons of the view, then redraws the view
      */
 
     public void update(){
 
-        DotButton b;
-        
-        JPanel grid = new JPanel(new GridLayout(gameModel.getWidth(), gameModel.getHeigth()));
+        long start = System.nanoTime();
+
+        if(canvas != null){
+            canvas.repaint();
+        }
+        else{
+            for(int i=0; i<board.length; i++){
+                for(int j=0; j<board[i].length; j++){
+                    board[i][j].setIconNumber(getIcon(i, j));
+                }
+            }
+        }
+
+        repaint();
+
+        if(TIMING){
+            System.out.println("update: " + icons.size() + " dots in " 
+                + (System.nanoTime() - start) / 1000 + " us");
+        }
+
+    }
+
+    /**
+     * Callback of the events of the model. The icons are updated first;
+     * a reset then redraws the whole board, and the other events only
+     * their dots. The end of a game needs no redraw of its own: the
+     * dots uncovered at the end are in the REVEALED event of the move.
+     *
+     * @param event
+     *            the GameEvent
+     */
+
+    public void gameChanged(GameEvent event){
 
+        long start = System.nanoTime();
 
-        for(int i=0; i<board.length; i++){
-            for(int j=0; j<board[i].length; j++){
-            	if(gameModel.hasBeenClicked(i,j)){
-                	board[i][j].setIconNumber(getIcon(i,j));
-                	board[i][j].removeActionListener(gameController);
-            	}
-            	else{
-                	board[i][j].setIconNumber(getIcon(i,j));
-            	}
+        icons.gameChanged(event);
+        nbreOfStepsLabel.setText("Number of Steps: " + event.getNumberOfSteps());
+
+        switch(event.getType()){
+            case RESET:
+                update();
+                return;
+            case WON:
+            case LOST:
+                return;
+            default:
+                break;
+        }
+
+        if(canvas != null){
+            repaintDots(event);
+        }
+        else{
+            for(int n=0; n<event.size(); n++){
+                board[event.getX(n)][event.getY(n)].setIconNumber(getIcon(event.getX(n), event.getY(n)));
             }
         }
-        nbreOfStepsLabel.setText("Number of Steps: " + gameModel.getNumberOfSteps());
 
         repaint();
 
+        if(TIMING){
+            System.out.println(event + ": " + event.size() + " dots in " 
+                + (System.nanoTime() - start) / 1000 + " us");
+        }
+
+    }
+
+    /**
+     * Asks the canvas to paint again the smallest rectangle holding all
+     * the dots of an event
+     *
+     * @param event
+     *            the GameEvent
+     */
+
+    private void repaintDots(GameEvent event){
+
+        int firstLine = Integer.MAX_VALUE, lastLine = -1;
+        int firstColumn = Integer.MAX_VALUE, lastColumn = -1;
+
+        for(int n=0; n<event.size(); n++){
+            firstLine = Math.min(firstLine, event.getX(n));
+            lastLine = Math.max(lastLine, event.getX(n));
+            firstColumn = Math.min(firstColumn, event.getY(n));
+            lastColumn = Math.max(lastColumn, event.getY(n));
+        }
+        if(lastLine >= 0){
+            canvas.repaintDots(firstLine, firstColumn, lastLine, lastColumn);
+        }
+
     }
 
     /**
@@ -126,29 +282,10 @@ public class GameView extends JFrame {
      *            the y coordinate of the dot
      * @return the icon to use for the dot at location (i,j)
      */   
-    private int getIcon(int i, int j){
-        
-        if(gameModel.hasBeenClicked(i,j) && gameModel.isMined(i, j)){
-            return 10; // clicked mine
-        }
-        else if(!gameModel.isCovered(i, j) && gameModel.isMined(i,j)){
-            return 9; // mine
-        }
-
-        else if(gameModel.hasBeenClicked(i,j) && !gameModel.isMined(i, j)){
-            return gameModel.getNeighbooringMines(i, j);
-        }
-
-        else if(gameModel.isFinished() && gameModel.isMined(i, j)){
-            return 12; //flagged mine
-        }
-
-        else{
-            return 11; //blank
-        }
+    int getIcon(int i, int j){
 
+        return icons.getIcon(i, j);
 
     }
 
-
 }
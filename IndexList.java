@@ -0,0 +1,131 @@
+/**
+ * The class <b>IndexList</b> is a growable list of int, used to hold 
+ * indices of dots without boxing them. It can also be used as a stack
+ * through <b>push</b> and <b>pop</b>. Once it has grown to the size it
+ * needs, clearing and refilling it does not allocate any memory.
+ *
+ */
+
+public class IndexList {
+
+    private int[] elems;
+
+    private int size;
+
+    /**
+     * Constructor, used to initialize an empty list
+     * 
+     * @param capacity
+     *            the initial capacity of the list
+     */
+    public IndexList(int capacity){
+
+        elems = new int[Math.max(capacity, 4)];
+        size = 0;
+
+    }
+
+    /**
+     * Tests if this list is empty.
+     *
+     * @return true if this list is empty; and false otherwise.
+     */
+    public boolean isEmpty(){
+
+        return size == 0;
+
+    }
+
+    /**
+     * Getter method for the number of elements
+     * 
+     * @return the number of elements of the list
+     */
+    public int size(){
+
+        return size;
+
+    }
+
+    /**
+     * Returns the element at a given position
+     * 
+     * @param n
+     *            the position of the element
+     * @return the element at position n
+     */
+    public int get(int n){
+
+        if(n >= size){
+            throw new IndexOutOfBoundsException(n);
+        }
+        return elems[n];
+
+    }
+
+    /**
+     * Replaces the element at a given position
+     * 
+     * @param n
+     *            the position of the element
+     * @param elem
+     *            the new element
+     */
+    public void set(int n, int elem){
+
+        if(n >= size){
+            throw new IndexOutOfBoundsException(n);
+        }
+        elems[n] = elem;
+
+    }
+
+    /**
+     * Adds an element at the end of the list (top of the stack)
+     * 
+     * @param elem
+     *            the element to add
+     */
+    public void push(int elem){
+
+        if(size == elems.length){
+            elems = java.util.Arrays.copyOf(elems, 2*size);
+        }
+        elems[size++] = elem;
+
+    }
+
+    /**
+     * Removes and returns the element at the end of the list (top of
+     * the stack)
+     *
+     * @return the last element of the list
+     */
+    public int pop(){
+
+        return elems[--size];
+
+    }
+
+    /**
+     * Removes the elements from a given position to the end of the list
+     * 
+     * @param newSize
+     *            the number of elements to keep
+     */
+    public void truncate(int newSize){
+
+        size = Math.min(size, newSize);
+
+    }
+
+    /**
+     * Removes all the elements. The memory of the list is kept.
+     */
+    public void clear(){
+
+        size = 0;
+
+    }
+
+}
@@ -0,0 +1,185 @@
+import java.nio.ByteBuffer;
+
+/**
+ * The class <b>MappedBoardStorage</b> keeps the board in four bitsets
+ * (mined, covered, clicked and flagged dots), in the layout of the files
+ * written by <b>BoardFile</b>. The bitsets are usually a memory-mapped
+ * file, so that a huge saved board can be played without reading it
+ * first: the dots are loaded by the operating system as they are used.
+ *
+ * The numbers of neighbooring mines are not stored, they are counted
+ * from the mined bitset when read, with the offsets of the topology of
+ * the board; <b>setNeighbooringMines</b> does nothing.
+ *
+ */
+
+public class MappedBoardStorage implements BoardStorage {
+
+    private ByteBuffer buffer;
+
+    private int heigth;
+
+    private Topology topology;
+
+    private int words;
+
+    private int mined, covered, clicked, flagged;
+
+    /**
+     * Constructor, used to initialize the storage on bitsets which are
+     * already filled
+     *
+     * @param buffer
+     *            the four bitsets, one after the other, starting at
+     *            position 0 of the buffer
+     * @param width
+     *            the width of the board
+     * @param heigth
+     *            the heigth of the board
+     */
+    public MappedBoardStorage(ByteBuffer buffer, int width, int heigth){
+
+        this(buffer, Topology.square(width, heigth));
+
+    }
+
+    /**
+     * Constructor, used to initialize the storage of a board of any
+     * topology on bitsets which are already filled
+     *
+     * @param buffer
+     *            the four bitsets, one after the other, starting at
+     *            position 0 of the buffer
+     * @param topology
+     *            the topology of the board
+     */
+    public MappedBoardStorage(ByteBuffer buffer, Topology topology){
+
+        int width = topology.getWidth();
+
+        this.buffer = buffer;
+        this.topology = topology;
+        this.heigth = topology.getHeigth();
+        words = BoardFile.words(width*heigth);
+        mined = 0;
+        covered = mined + 8*words;
+        clicked = covered + 8*words;
+        flagged = clicked + 8*words;
+
+    }
+
+    public boolean isMined(int index){
+        return get(mined, index);
+    }
+
+    public void setMined(int index){
+        set(mined, index, true);
+    }
+
+    public void clearMine(int index){
+        set(mined, index, false);
+    }
+
+    public boolean isCovered(int index){
+        return get(covered, index);
+    }
+
+    public void uncover(int index){
+        set(covered, index, false);
+    }
+
+    public void cover(int index){
+        set(covered, index, true);
+    }
+
+    public boolean hasBeenClicked(int index){
+        return get(clicked, index);
+    }
+
+    public void click(int index){
+        set(clicked, index, true);
+    }
+
+    public void unclick(int index){
+        set(clicked, index, false);
+    }
+
+    public boolean isFlagged(int index){
+        return get(flagged, index);
+    }
+
+    public void toggleFlag(int index){
+        set(flagged, index, !get(flagged, index));
+    }
+
+    public int getNeighbooringMines(int index){
+
+        int[] around = topology.offsets(index);
+        int count = 0;
+
+        for(int n=0; n<around.length; n++){
+            if(get(mined, index + around[n])){
+                count++;
+            }
+        }
+        return count;
+
+    }
+
+    public void setNeighbooringMines(int index, int neighbooringMines){
+    }
+
+    public boolean storesNeighbooringMines(){
+        return false;
+    }
+
+    public void clear(){
+
+        for(int w=0; w<words; w++){
+            buffer.putLong(mined + 8*w, 0L);
+            buffer.putLong(covered + 8*w, -1L);
+            buffer.putLong(clicked + 8*w, 0L);
+            buffer.putLong(flagged + 8*w, 0L);
+        }
+
+    }
+
+    public DotInfo get(int index){
+        return new DotView(this, index, heigth);
+    }
+
+    /**
+     * returns a bit of a bitset
+     *
+     * @param bitset
+     *            the position of the bitset in the buffer
+     * @param index
+     *            the index of the dot
+     * @return the bit of the dot
+     */
+    private boolean get(int bitset, int index){
+
+        return (buffer.getLong(bitset + 8*(index >>> 6)) & (1L << index)) != 0;
+
+    }
+
+    /**
+     * Sets or clears a bit of a bitset
+     *
+     * @param bitset
+     *            the position of the bitset in the buffer
+     * @param index
+     *            the index of the dot
+     * @param value
+     *            the new value of the bit
+     */
+    private void set(int bitset, int index, boolean value){
+
+        int position = bitset + 8*(index >>> 6);
+        long word = buffer.getLong(position);
+
+        buffer.putLong(position, value ? word | (1L << index) : word & ~(1L << index));
+
+    }
+
+}
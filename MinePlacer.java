@@ -0,0 +1,98 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * The class <b>MinePlacer</b> hides mines uniformly at random in a range
+ * of dots, using Floyd's sampling algorithm. Every dot of the range has 
+ * the same chance of being mined, and exactly one random number is drawn
+ * per mine, whatever the density of mines: there is no retry when a dot
+ * is already mined.
+ *
+ */
+
+public class MinePlacer {
+
+    /**
+     * Places mines in the dots whose index is in [from, to[. The dots of
+     * the range must not be mined before the call.
+     * 
+     * @param storage
+     *            the storage of the board
+     * @param from
+     *            the index of the first dot of the range
+     * @param to
+     *            the index following the last dot of the range
+     * @param numberOfMines
+     *            the number of mines to place, at most to-from
+     * @param generator
+     *            the random generator to use
+     */
+    public static void placeMines(BoardStorage storage, int from, int to, 
+        int numberOfMines, RandomGenerator generator){
+
+        int size = to - from;
+        int k;
+
+        for(int n = size - numberOfMines; n < size; n++){
+            k = generator.nextInt(n+1);
+            if(storage.isMined(from + k)){
+                k = n;
+            }
+            storage.setMined(from + k);
+        }
+
+    }
+
+    /**
+     * Places mines in the dots whose index is in [0, size[, except in a
+     * few excluded dots. The dots must not be mined before the call.
+     * 
+     * @param storage
+     *            the storage of the board
+     * @param size
+     *            the number of dots of the board
+     * @param numberOfMines
+     *            the number of mines to place, at most size-excludedSize
+     * @param excluded
+     *            the indices of the dots to keep free, in increasing order
+     * @param excludedSize
+     *            the number of dots to keep free
+     * @param generator
+     *            the random generator to use
+     */
+    public static void placeMinesAvoiding(BoardStorage storage, int size, int numberOfMines,
+        int[] excluded, int excludedSize, RandomGenerator generator){
+
+        int allowed = size - excludedSize;
+        int k;
+
+        for(int n = allowed - numberOfMines; n < allowed; n++){
+            k = skip(generator.nextInt(n+1), excluded, excludedSize);
+            if(storage.isMined(k)){
+                k = skip(n, excluded, excludedSize);
+            }
+            storage.setMined(k);
+        }
+
+    }
+
+    /**
+     * Maps the k-th allowed dot to its index on the board
+     * 
+     * @param k
+     *            the rank of the dot among the allowed dots
+     * @param excluded
+     *            the indices of the excluded dots, in increasing order
+     * @param excludedSize
+     *            the number of excluded dots
+     * @return the index of the dot
+     */
+    private static int skip(int k, int[] excluded, int excludedSize){
+
+        for(int n=0; n<excludedSize && excluded[n] <= k; n++){
+            k++;
+        }
+        return k;
+
+    }
+
+}
@@ -0,0 +1,255 @@
+/**
+ * The class <b>MoveJournal</b> records the moves played on a
+ * <b>GameEngine</b> since the last reset, together with the seed of the
+ * board: replaying the journal on a new engine plays the same game again.
+ *
+ * Each move is kept in a single long (the kind of move and the
+ * coordinates of the dot), with the range of the changes of the model
+ * that it made, so that it can be undone by reverting these changes only.
+ * The journal has a position: the moves before it have been played, the
+ * moves after it have been undone and can be redone. Recording a new move
+ * forgets the moves that were undone.
+ *
+ */
+
+public class MoveJournal {
+
+    /**
+     * opcode of a move revealing a dot
+     */
+    public static final int REVEAL = 0;
+
+    /**
+     * opcode of a move flagging or unflagging a dot
+     */
+    public static final int FLAG = 1;
+
+    /**
+     * opcode of a move chording on a dot
+     */
+    public static final int CHORD = 2;
+
+    private static final long COORDINATE = (1L << 31) - 1;
+
+    private long seed;
+
+    private long[] moves = new long[64];
+
+    private IndexList firstChange = new IndexList(64);
+
+    private IndexList lastChange = new IndexList(64);
+
+    private int size;
+
+    private int position;
+
+    /**
+     * Empties the journal, for a new game
+     *
+     * @param seed
+     *            the seed of the board of the new game
+     */
+    public void clear(long seed) {
+
+        this.seed = seed;
+        size = 0;
+        position = 0;
+        firstChange.clear();
+        lastChange.clear();
+
+    }
+
+    /**
+     * Getter method for the seed of the board
+     *
+     * @return the seed of the board of the game
+     */
+    public long getSeed() {
+
+        return seed;
+
+    }
+
+    /**
+     * Getter method for the number of moves recorded, including the moves
+     * that were undone
+     *
+     * @return the number of moves
+     */
+    public int size() {
+
+        return size;
+
+    }
+
+    /**
+     * Getter method for the number of moves played and not undone
+     *
+     * @return the position of the journal
+     */
+    public int getPosition() {
+
+        return position;
+
+    }
+
+    /**
+     * returns the opcode of a move: REVEAL, FLAG or CHORD
+     *
+     * @param n
+     *            the number of the move
+     * @return the opcode of the move
+     */
+    public int getOpcode(int n) {
+
+        return (int) (move(n) >>> 62);
+
+    }
+
+    /**
+     * returns the x coordinate of the dot of a move
+     *
+     * @param n
+     *            the number of the move
+     * @return the x coordinate
+     */
+    public int getX(int n) {
+
+        return (int) ((move(n) >>> 31) & COORDINATE);
+
+    }
+
+    /**
+     * returns the y coordinate of the dot of a move
+     *
+     * @param n
+     *            the number of the move
+     * @return the y coordinate
+     */
+    public int getY(int n) {
+
+        return (int) (move(n) & COORDINATE);
+
+    }
+
+    /**
+     * returns a copy of the journal, which is not changed by the moves
+     * recorded later in this one
+     *
+     * @return the copy
+     */
+    public MoveJournal copy() {
+
+        MoveJournal copy = new MoveJournal();
+
+        copy.clear(seed);
+        copy.moves = java.util.Arrays.copyOf(moves, moves.length);
+        for (int n = 0; n < position; n++) {
+            copy.firstChange.push(firstChange.get(n));
+            copy.lastChange.push(lastChange.get(n));
+        }
+        copy.size = size;
+        copy.position = position;
+        return copy;
+
+    }
+
+    /**
+     * Records a move played at the position of the journal, and forgets
+     * the moves that were undone
+     *
+     * @param opcode
+     *            the opcode of the move
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @param from
+     *            the number of the first change of the model made by the move
+     * @param to
+     *            the number following the last change made by the move
+     */
+    void record(int opcode, int i, int j, int from, int to) {
+
+        if (position == moves.length) {
+            moves = java.util.Arrays.copyOf(moves, 2*moves.length);
+        }
+        moves[position] = (long) opcode << 62 | (long) i << 31 | j;
+        size = position;
+        redone(from, to);
+
+    }
+
+    /**
+     * Moves the position back by one move, once its changes have been
+     * reverted
+     */
+    void undone() {
+
+        position--;
+        firstChange.truncate(position);
+        lastChange.truncate(position);
+
+    }
+
+    /**
+     * Moves the position forward by one move, which has just been played
+     * again
+     *
+     * @param from
+     *            the number of the first change of the model made by the move
+     * @param to
+     *            the number following the last change made by the move
+     */
+    void redone(int from, int to) {
+
+        firstChange.push(from);
+        lastChange.push(to);
+        position++;
+        size = Math.max(size, position);
+
+    }
+
+    /**
+     * returns the number of the first change made by a move played
+     *
+     * @param n
+     *            the number of the move, before the position
+     * @return the number of the first change of the move
+     */
+    int getFirstChange(int n) {
+
+        return firstChange.get(n);
+
+    }
+
+    /**
+     * returns the number following the last change made by a move played
+     *
+     * @param n
+     *            the number of the move, before the position
+     * @return the number following the last change of the move
+     */
+    int getLastChange(int n) {
+
+        return lastChange.get(n);
+
+    }
+
+    /**
+     * returns the long holding a move
+     *
+     * @param n
+     *            the number of the move
+     * @return the move
+     */
+    private long move(int n) {
+
+        if (n >= size) {
+            throw new IndexOutOfBoundsException(n);
+        }
+        return moves[n];
+
+    }
+
+}
@@ -0,0 +1,30 @@
+/**
+ * The enum <b>MoveResult</b> lists the possible outcomes of a move
+ * played on a <b>GameEngine</b>.
+ *
+ */
+
+public enum MoveResult {
+
+    /**
+     * the move was not allowed (dot already uncovered, flagged dot, game
+     * over...) and nothing changed
+     */
+    IGNORED,
+
+    /**
+     * the move was played and the game goes on
+     */
+    CONTINUE,
+
+    /**
+     * the move uncovered the last safe dot: the game is won
+     */
+    WON,
+
+    /**
+     * the move uncovered a mine: the game is lost
+     */
+    LOST
+
+}
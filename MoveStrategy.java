@@ -0,0 +1,34 @@
+/**
+ * The interface <b>MoveStrategy</b> is implemented by the players used 
+ * in simulations. A strategy chooses and plays one move at a time on a
+ * <b>GameEngine</b>. A strategy may keep state between moves; the 
+ * <b>SimulationRunner</b> gives each thread its own instance. The random
+ * choices of a strategy in a game only depend on its seed and on the 
+ * board of the game, so that the results of a simulation do not depend
+ * on the number of threads.
+ *
+ */
+
+public interface MoveStrategy {
+
+    /**
+     * Called before the first move of each game, once the board of the
+     * game is generated
+     *
+     * @param engine
+     *            the engine of the new game
+     */
+
+    public abstract void newGame(GameEngine engine);
+
+    /**
+     * Chooses a move and plays it on the engine
+     *
+     * @param engine
+     *            the engine of the game in progress
+     * @return the result of the move
+     */
+
+    public abstract MoveResult play(GameEngine engine);
+
+}
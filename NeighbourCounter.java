@@ -0,0 +1,192 @@
+/**
+ * The class <b>NeighbourCounter</b> computes the number of neighbooring
+ * mines of every dot of a board. Instead of testing the eight neighboors
+ * of each dot, it uses the fact that the 3x3 sum is separable: each line
+ * of the board is first summed horizontally (three dots at a time) and
+ * the count of a dot is then the sum of the horizontal sums of its line
+ * and of the two adjacent lines, minus the dot itself.
+ *
+ * All the work is done on plain int arrays padded with zeros, so that 
+ * the inner loops have no boundary cases and can be vectorized by the
+ * JIT. The arrays are allocated once and reused between calls.
+ *
+ * The boards of other topologies (torus, hexagonal grid) are counted
+ * dot by dot, with the offsets of their <b>Topology</b>.
+ *
+ */
+
+public class NeighbourCounter {
+
+    private int[] maskAbove, mask, maskBelow;
+
+    private int[] sumAbove, sum, sumBelow;
+
+    private int[] count;
+
+    /**
+     * Assigns the number of neighbooring mines to each dot of the board
+     * 
+     * @param storage
+     *            the storage of the board
+     * @param width
+     *            the width of the board
+     * @param heigth
+     *            the heigth of the board
+     */
+    public void count(BoardStorage storage, int width, int heigth){
+
+        count(storage, width, heigth, 0, width);
+
+    }
+
+    /**
+     * Assigns the number of neighbooring mines to each dot of a board of
+     * any topology
+     * 
+     * @param storage
+     *            the storage of the board
+     * @param topology
+     *            the topology of the board
+     */
+    public void count(BoardStorage storage, Topology topology){
+
+        int width = topology.getWidth();
+        int heigth = topology.getHeigth();
+        int[] around;
+        int k, mines;
+
+        if(topology.isSquare()){
+            count(storage, width, heigth, 0, width);
+            return;
+        }
+
+        for(int i=0; i<width; i++){
+            for(int j=0; j<heigth; j++){
+                k = i*heigth + j;
+                around = topology.offsets(i, j);
+                mines = 0;
+                for(int n=0; n<around.length; n++){
+                    if(storage.isMined(k + around[n])){
+                        mines++;
+                    }
+                }
+                storage.setNeighbooringMines(k, mines);
+            }
+        }
+
+    }
+
+    /**
+     * Assigns the number of neighbooring mines to each dot of the lines
+     * [from, to[ of the board. The mines of the lines next to the range
+     * are read but their numbers are left unchanged, so that separate
+     * ranges can be counted at the same time by separate counters.
+     * 
+     * @param storage
+     *            the storage of the board
+     * @param width
+     *            the width of the board
+     * @param heigth
+     *            the heigth of the board
+     * @param from
+     *            the first line to count
+     * @param to
+     *            the line following the last line to count
+     */
+    public void count(BoardStorage storage, int width, int heigth, int from, int to){
+
+        int[] swap;
+
+        allocate(heigth);
+
+        if(from > 0){
+            readLine(storage, heigth, from-1, maskAbove, sumAbove);
+        }
+        else{
+            java.util.Arrays.fill(maskAbove, 0);
+            java.util.Arrays.fill(sumAbove, 0);
+        }
+        readLine(storage, heigth, from, mask, sum);
+
+        for(int i=from; i<to; i++){
+
+            if(i+1 < width){
+                readLine(storage, heigth, i+1, maskBelow, sumBelow);
+            }
+            else{
+                java.util.Arrays.fill(maskBelow, 0);
+                java.util.Arrays.fill(sumBelow, 0);
+            }
+
+            for(int j=0; j<heigth; j++){
+                count[j] = sumAbove[j] + sum[j] + sumBelow[j] - mask[j+1];
+            }
+
+            int offset = i*heigth;
+            for(int j=0; j<heigth; j++){
+                storage.setNeighbooringMines(offset + j, count[j]);
+            }
+
+            swap = maskAbove;
+            maskAbove = mask;
+            mask = maskBelow;
+            maskBelow = swap;
+
+            swap = sumAbove;
+            sumAbove = sum;
+            sum = sumBelow;
+            sumBelow = swap;
+        }
+    }
+
+    /**
+     * Reads the mines of the line i into a padded mask, and computes 
+     * its horizontal sums
+     * 
+     * @param storage
+     *            the storage of the board
+     * @param heigth
+     *            the heigth of the board
+     * @param i
+     *            the line to read
+     * @param lineMask
+     *            the padded mask to fill (size heigth+2)
+     * @param lineSum
+     *            the horizontal sums to fill (size heigth)
+     */
+    private static void readLine(BoardStorage storage, int heigth, int i, int[] lineMask, int[] lineSum){
+
+        int offset = i*heigth;
+
+        for(int j=0; j<heigth; j++){
+            lineMask[j+1] = storage.isMined(offset + j) ? 1 : 0;
+        }
+        for(int j=0; j<heigth; j++){
+            lineSum[j] = lineMask[j] + lineMask[j+1] + lineMask[j+2];
+        }
+
+    }
+
+    /**
+     * Allocates the work arrays, unless they are already large enough
+     * 
+     * @param heigth
+     *            the heigth of the board
+     */
+    private void allocate(int heigth){
+
+        if(count != null && count.length == heigth){
+            return;
+        }
+
+        maskAbove = new int[heigth+2];
+        mask = new int[heigth+2];
+        maskBelow = new int[heigth+2];
+        sumAbove = new int[heigth];
+        sum = new int[heigth];
+        sumBelow = new int[heigth];
+        count = new int[heigth];
+
+    }
+
+}
@@ -0,0 +1,417 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The class <b>NoGuessGenerator</b> generates boards that can be solved
+ * without guessing from a chosen first click: starting from that click,
+ * the <b>Solver</b> proves every safe dot of the board.
+ *
+ * Each attempt places the mines away from the first click, then:
+ * - rejects at once the boards with a safe dot surrounded by mines,
+ * which no number can ever prove;
+ * - plays the board with the solver. When the solver gets stuck, a mine
+ * of the frontier that it could not prove is moved to a covered dot far
+ * from the uncovered zone, and the board is played again. After a few
+ * such repairs the board is given up and a new one is drawn.
+ *
+ * The attempts run in parallel, each thread with its own scratch model,
+ * until one of them finds a board or the time budget is spent. Because
+ * the threads race, the board found is not a function of the seed when
+ * more than one thread is used.
+ *
+ * Usage: java NoGuessGenerator [width heigth numberOfMines boards threads budgetMillis]
+ *
+ */
+
+public class NoGuessGenerator {
+
+    private static final int MAX_REPAIRS = 16;
+
+    private int width, heigth, numberOfMines;
+
+    private int threads;
+
+    private long budgetMillis;
+
+    /**
+     * Constructor used for initializing a generator
+     *
+     * @param width
+     *            the width of the boards
+     * @param heigth
+     *            the heigth of the boards
+     * @param numberOfMines
+     *            the number of mines hidden in each board
+     * @param threads
+     *            the number of threads trying boards in parallel
+     * @param budgetMillis
+     *            the time after which the generation gives up
+     */
+    public NoGuessGenerator(int width, int heigth, int numberOfMines, int threads, long budgetMillis) {
+
+        this.width = width;
+        this.heigth = heigth;
+        this.numberOfMines = numberOfMines;
+        this.threads = threads;
+        this.budgetMillis = budgetMillis;
+
+    }
+
+    /**
+     * Generates a board which can be solved without guessing from a first
+     * click at location (i,j). If the time budget is spent first, the
+     * report holds the last board tried, which is still safe at (i,j).
+     *
+     * @param i
+     *            the x coordinate of the first click
+     * @param j
+     *            the y coordinate of the first click
+     * @param seed
+     *            the seed of the attempts
+     * @return the board found, with the cost of its generation
+     */
+    public Report generate(int i, int j, long seed) {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Report>> results = new ArrayList<Future<Report>>();
+        AtomicBoolean found = new AtomicBoolean();
+        long start = System.nanoTime();
+        long deadline = start + budgetMillis * 1000000L;
+        Report report = null;
+        Report other;
+
+        try {
+            for (int n = 0; n < threads; n++) {
+                long workerSeed = SplitMixRandom.mix(seed + n);
+                results.add(executor.submit(() -> search(i, j, workerSeed, deadline, found)));
+            }
+            for (Future<Report> result : results) {
+                other = result.get();
+                if (report == null || (other.solvable && !report.solvable)) {
+                    other.attempts += report == null ? 0 : report.attempts;
+                    report = other;
+                }
+                else {
+                    report.attempts += other.attempts;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("generation interrupted", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("generation failed", e.getCause());
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        report.nanos = System.nanoTime() - start;
+        return report;
+
+    }
+
+    /**
+     * Tries boards on the current thread until one is solvable, another
+     * thread found one, or the deadline is passed
+     *
+     * @param i
+     *            the x coordinate of the first click
+     * @param j
+     *            the y coordinate of the first click
+     * @param seed
+     *            the seed of the boards of this thread
+     * @param deadline
+     *            the value of System.nanoTime() after which to give up
+     * @param found
+     *            set once a thread has found a board
+     * @return the last board tried by this thread
+     */
+    private Report search(int i, int j, long seed, long deadline, AtomicBoolean found) {
+
+        GameModel gameModel = new GameModel.Builder(width, heigth, numberOfMines)
+            .packed(true).seed(seed).build();
+        GameEngine gameEngine = new GameEngine(gameModel);
+        Solver solver = new Solver(gameEngine);
+        SplitMixRandom generator = new SplitMixRandom(seed);
+        Report report = new Report();
+        IndexList mines = new IndexList(numberOfMines);
+        IndexList candidates = new IndexList(64);
+        int repairs;
+
+        do {
+            report.attempts++;
+            gameEngine.reset(generator.nextLong(), i, j);
+            collectMines(gameModel, mines);
+            if (hasIsolatedSafeDot(gameModel)) {
+                continue;
+            }
+
+            // a repair is only made when the repaired board will be played,
+            // so that the mines are always those of the last board played
+            for (repairs = 0; ; repairs++) {
+                if (repairs > 0) {
+                    gameEngine.reset(mines);
+                }
+                gameEngine.reveal(i, j);
+                solver.autoPlay();
+                if (gameEngine.isOver()) {
+                    report.solvable = found.compareAndSet(false, true);
+                    break;
+                }
+                if (repairs == MAX_REPAIRS || found.get() || System.nanoTime() >= deadline
+                    || !repair(gameModel, solver, mines, candidates, generator, i, j)) {
+                    break;
+                }
+            }
+        } while (!report.solvable && !found.get() && System.nanoTime() < deadline);
+
+        report.mines = mines;
+        return report;
+
+    }
+
+    /**
+     * Moves a mine of the frontier that the solver could not prove to a
+     * random covered dot that touches no uncovered dot, outside of the
+     * zone of the first click
+     *
+     * @param gameModel
+     *            the model where the solver got stuck
+     * @param solver
+     *            the solver of the model
+     * @param mines
+     *            the mines of the board, updated by the move
+     * @param candidates
+     *            scratch list
+     * @param generator
+     *            the random generator of the thread
+     * @param i
+     *            the x coordinate of the first click
+     * @param j
+     *            the y coordinate of the first click
+     * @return false if no mine could be moved
+     */
+    private boolean repair(GameModel gameModel, Solver solver, IndexList mines,
+        IndexList candidates, SplitMixRandom generator, int i, int j) {
+
+        int from, to;
+
+        candidates.clear();
+        for (int n = 0; n < mines.size(); n++) {
+            from = mines.get(n);
+            if (!solver.isKnownMine(from) && touchesUncovered(gameModel, from / heigth, from % heigth)) {
+                candidates.push(n);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return false;
+        }
+        from = candidates.get(generator.nextInt(candidates.size()));
+
+        candidates.clear();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < heigth; y++) {
+                if (gameModel.isCovered(x, y) && !gameModel.isMined(x, y)
+                    && (Math.abs(x-i) > 1 || Math.abs(y-j) > 1)
+                    && !touchesUncovered(gameModel, x, y)) {
+                    candidates.push(x*heigth + y);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return false;
+        }
+        to = candidates.get(generator.nextInt(candidates.size()));
+
+        mines.set(from, to);
+        return true;
+
+    }
+
+    /**
+     * returns true if a safe dot has only mined neighboors: no number can
+     * prove it safe
+     *
+     * @param gameModel
+     *            the model of the board
+     * @return true if the board has such a dot
+     */
+    private boolean hasIsolatedSafeDot(GameModel gameModel) {
+
+        Topology topology = gameModel.getTopology();
+        int neighboors;
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < heigth; y++) {
+                if (!gameModel.isMined(x, y)) {
+                    neighboors = topology.offsets(x, y).length;
+                    if (neighboors > 0 && gameModel.getNeighbooringMines(x, y) == neighboors) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * returns true if one of the neighboors of the dot (i,j) is uncovered
+     *
+     * @param gameModel
+     *            the model of the board
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return true if the dot touches the uncovered zone
+     */
+    private boolean touchesUncovered(GameModel gameModel, int i, int j) {
+
+        int k = i*heigth + j;
+        int[] around = gameModel.getTopology().offsets(i, j);
+
+        if (!gameModel.isCovered(i, j)) {
+            return true;
+        }
+        for (int m = 0; m < around.length; m++) {
+            if (!gameModel.isCovered((k + around[m]) / heigth, (k + around[m]) % heigth)) {
+                return true;
+            }
+        }
+        return false;
+
+    }
+
+    /**
+     * Lists the mined dots of a model
+     *
+     * @param gameModel
+     *            the model of the board
+     * @param mines
+     *            the list to fill with the indices of the mined dots
+     */
+    private void collectMines(GameModel gameModel, IndexList mines) {
+
+        mines.clear();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < heigth; y++) {
+                if (gameModel.isMined(x, y)) {
+                    mines.push(x*heigth + y);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * <b>main</b> of the generator: generates boards clicked first in
+     * their middle, and prints the cost of each one.
+     *
+     * @param args
+     *            command line parameters
+     */
+    public static void main(String[] args) {
+
+        int width = 30, heigth = 16, numberOfMines = 99;
+        int boards = 20;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long budgetMillis = 5000;
+
+        if (args.length == 6) {
+            width = Integer.parseInt(args[0]);
+            heigth = Integer.parseInt(args[1]);
+            numberOfMines = Integer.parseInt(args[2]);
+            boards = Integer.parseInt(args[3]);
+            threads = Integer.parseInt(args[4]);
+            budgetMillis = Long.parseLong(args[5]);
+        }
+
+        NoGuessGenerator generator = new NoGuessGenerator(width, heigth, numberOfMines, threads, budgetMillis);
+        for (int n = 0; n < boards; n++) {
+            System.out.println(generator.generate(width/2, heigth/2, n));
+        }
+
+    }
+
+    /**
+     * The class <b>Report</b> holds a generated board and the cost of its
+     * generation
+     */
+    public static class Report {
+
+        private IndexList mines;
+
+        private boolean solvable;
+
+        private long attempts;
+
+        private long nanos;
+
+        /**
+         * Getter method for the mines of the board
+         *
+         * @return the indices i*heigth+j of the mined dots
+         */
+        public IndexList getMines() {
+
+            return mines;
+
+        }
+
+        /**
+         * returns true if the board can be solved without guessing, false
+         * if the time budget was spent before such a board was found
+         *
+         * @return true if the board is solvable
+         */
+        public boolean isSolvable() {
+
+            return solvable;
+
+        }
+
+        /**
+         * Getter method for the number of boards tried, by all threads
+         *
+         * @return the number of attempts
+         */
+        public long getAttempts() {
+
+            return attempts;
+
+        }
+
+        /**
+         * Getter method for the duration of the generation
+         *
+         * @return the duration in milliseconds
+         */
+        public double getMillis() {
+
+            return nanos / 1e6;
+
+        }
+
+        /**
+         * returns a one line summary of the generation
+         *
+         * @return the summary
+         */
+        public String toString() {
+
+            return String.format("%s after %d attempts in %.1f ms",
+                solvable ? "solvable" : "NOT solvable", attempts, getMillis());
+
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+/**
+ * The class <b>ObjectBoardStorage</b> is the original storage of the
+ * board: one <b>DotInfo</b> object per dot.
+ *
+ */
+
+public class ObjectBoardStorage implements BoardStorage {
+
+    private DotInfo[] dots;
+
+    /**
+     * Constructor, used to initialize the storage for a board of
+     * the given size. All the dots are covered and not mined.
+     * 
+     * @param width
+     *            the width of the board
+     * @param heigth
+     *            the heigth of the board
+     */
+    public ObjectBoardStorage(int width, int heigth){
+
+        dots = new DotInfo[width*heigth];
+
+        for(int i=0; i<width; i++){
+            for(int j=0; j<heigth; j++){
+                dots[i*heigth+j] = new DotInfo(i, j);
+            }
+        }
+
+    }
+
+    public boolean isMined(int index){
+        return dots[index].isMined();
+    }
+
+    public void setMined(int index){
+        dots[index].setMined();
+    }
+
+    public void clearMine(int index){
+        dots[index].clearMine();
+    }
+
+    public boolean isCovered(int index){
+        return dots[index].isCovered();
+    }
+
+    public void uncover(int index){
+        dots[index].uncover();
+    }
+
+    public void cover(int index){
+        dots[index].cover();
+    }
+
+    public boolean hasBeenClicked(int index){
+        return dots[index].hasBeenClicked();
+    }
+
+    public void click(int index){
+        dots[index].click();
+    }
+
+    public void unclick(int index){
+        dots[index].unclick();
+    }
+
+    public boolean isFlagged(int index){
+        return dots[index].isFlagged();
+    }
+
+    public void toggleFlag(int index){
+        dots[index].toggleFlag();
+    }
+
+    public int getNeighbooringMines(int index){
+        return dots[index].getNeighbooringMines();
+    }
+
+    public void setNeighbooringMines(int index, int neighbooringMines){
+        dots[index].setNeighbooringMines(neighbooringMines);
+    }
+
+    public boolean storesNeighbooringMines(){
+        return true;
+    }
+
+    public void clear(){
+        for(int i=0; i<dots.length; i++){
+            dots[i].clear();
+        }
+    }
+
+    public DotInfo get(int index){
+        return dots[index];
+    }
+
+}
@@ -0,0 +1,135 @@
+/**
+ * The class <b>PackedBoardStorage</b> keeps the whole board in a single
+ * byte array, one byte per dot. The lower four bits hold the number of
+ * neighbooring mines and the upper bits the mined, covered, clicked and
+ * flagged flags. No object is created per dot, which makes very large boards
+ * cheap to hold and to collect.
+ *
+ */
+
+public class PackedBoardStorage implements BoardStorage {
+
+    static final int NEIGHBOORS = 0x0F;
+    static final int MINED      = 0x10;
+    static final int COVERED    = 0x20;
+    static final int CLICKED    = 0x40;
+    static final int FLAGGED    = 0x80;
+
+    private byte[] cells;
+
+    private int heigth;
+
+    /**
+     * Constructor, used to initialize the storage for a board of
+     * the given size. All the dots are covered and not mined.
+     * 
+     * @param width
+     *            the width of the board
+     * @param heigth
+     *            the heigth of the board
+     */
+    public PackedBoardStorage(int width, int heigth){
+
+        this.heigth = heigth;
+        cells = new byte[width*heigth];
+        clear();
+
+    }
+
+    public boolean isMined(int index){
+        return (cells[index] & MINED) != 0;
+    }
+
+    public void setMined(int index){
+        cells[index] |= MINED;
+    }
+
+    public void clearMine(int index){
+        cells[index] &= ~MINED;
+    }
+
+    public boolean isCovered(int index){
+        return (cells[index] & COVERED) != 0;
+    }
+
+    public void uncover(int index){
+        cells[index] &= ~COVERED;
+    }
+
+    public void cover(int index){
+        cells[index] |= COVERED;
+    }
+
+    public boolean hasBeenClicked(int index){
+        return (cells[index] & CLICKED) != 0;
+    }
+
+    public void click(int index){
+        cells[index] |= CLICKED;
+    }
+
+    public void unclick(int index){
+        cells[index] &= ~CLICKED;
+    }
+
+    public boolean isFlagged(int index){
+        return (cells[index] & FLAGGED) != 0;
+    }
+
+    public void toggleFlag(int index){
+        cells[index] ^= FLAGGED;
+    }
+
+    public int getNeighbooringMines(int index){
+        return cells[index] & NEIGHBOORS;
+    }
+
+    public void setNeighbooringMines(int index, int neighbooringMines){
+        cells[index] = (byte) ((cells[index] & ~NEIGHBOORS) | neighbooringMines);
+    }
+
+    /**
+     * returns the flags of a dot (MINED, COVERED, CLICKED and FLAGGED)
+     * and its number of neighbooring mines, packed in one byte
+     *
+     * @param index
+     *            the index of the dot
+     * @return the byte of the dot
+     */
+    int getState(int index){
+        return cells[index] & 0xFF;
+    }
+
+    /**
+     * Sets the flags of a dot and its number of neighbooring mines at once
+     *
+     * @param index
+     *            the index of the dot
+     * @param state
+     *            the byte of the dot, as returned by getState
+     */
+    void setState(int index, int state){
+        cells[index] = (byte) state;
+    }
+
+    public boolean storesNeighbooringMines(){
+        return true;
+    }
+
+    public void clear(){
+        java.util.Arrays.fill(cells, (byte) COVERED);
+    }
+
+    /**
+     * Returns a lightweight view of the dot. The view holds no state of
+     * its own, it reads and writes the packed array.
+     *
+     * @param index
+     *            the index of the dot
+     * @return a DotInfo view of the dot
+     */
+    public DotInfo get(int index){
+        return new DotView(this, index, heigth);
+    }
+
+}
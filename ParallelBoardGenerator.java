@@ -0,0 +1,160 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * The class <b>ParallelBoardGenerator</b> places the mines and computes the
+ * numbers of very large boards on several threads.
+ *
+ * The board is cut in stripes of whole lines, starting on multiples of
+ * 64 dots. The number of mines of each stripe is drawn, stripe after 
+ * stripe, from the hypergeometric distribution, which is exactly how a 
+ * uniform placement on the whole board would spread them; each stripe 
+ * then places its mines with its own random generator. The numbers are
+ * computed per stripe, reading the mines of the lines just outside the
+ * stripe.
+ *
+ * The stripes, the mine counts and the seeds of the stripes only depend
+ * on the size of the board and on the random generator of the board, 
+ * never on the number of threads: a given seed always gives the same 
+ * board.
+ *
+ */
+
+public class ParallelBoardGenerator {
+
+    private static final int DOTS_PER_STRIPE = 1 << 20;
+
+    private ForkJoinPool pool;
+
+    /**
+     * Constructor used for initializing a generator
+     * 
+     * @param pool
+     *            the pool running the stripes
+     */
+    public ParallelBoardGenerator(ForkJoinPool pool) {
+
+        this.pool = pool;
+
+    }
+
+    /**
+     * Places the mines and computes the numbers of a cleared board
+     * 
+     * @param storage
+     *            the storage of the board, with no mine
+     * @param width
+     *            the width of the board
+     * @param heigth
+     *            the heigth of the board
+     * @param numberOfMines
+     *            the number of mines to place
+     * @param generator
+     *            the random generator of the board, already seeded
+     */
+    public void generate(BoardStorage storage, int width, int heigth, int numberOfMines, 
+        RandomGenerator generator) {
+
+        int linesPerStripe = linesPerStripe(heigth);
+        int stripes = (width + linesPerStripe - 1) / linesPerStripe;
+        List<Callable<Void>> placements = new ArrayList<Callable<Void>>(stripes);
+        long remainingDots = (long) width * heigth;
+        long remainingMines = numberOfMines;
+
+        for (int s = 0; s < stripes; s++) {
+            int from = s * linesPerStripe;
+            int to = Math.min(width, from + linesPerStripe);
+            int dots = (to - from) * heigth;
+            int mines = (int) Combinatorics.hypergeometric(generator, remainingDots, remainingMines, dots);
+            long seed = generator.nextLong();
+
+            remainingDots -= dots;
+            remainingMines -= mines;
+
+            placements.add(() -> {
+                MinePlacer.placeMines(storage, from*heigth, to*heigth, mines, new SplitMixRandom(seed));
+                return null;
+            });
+        }
+
+        runAll(placements);
+        count(storage, width, heigth);
+
+    }
+
+    /**
+     * Computes the numbers of a board whose mines are already placed
+     * 
+     * @param storage
+     *            the storage of the board
+     * @param width
+     *            the width of the board
+     * @param heigth
+     *            the heigth of the board
+     */
+    public void count(BoardStorage storage, int width, int heigth) {
+
+        int linesPerStripe = linesPerStripe(heigth);
+        int stripes = (width + linesPerStripe - 1) / linesPerStripe;
+        List<Callable<Void>> countings = new ArrayList<Callable<Void>>(stripes);
+
+        for (int s = 0; s < stripes; s++) {
+            int from = s * linesPerStripe;
+            int to = Math.min(width, from + linesPerStripe);
+
+            countings.add(() -> {
+                new NeighbourCounter().count(storage, width, heigth, from, to);
+                return null;
+            });
+        }
+
+        runAll(countings);
+
+    }
+
+    /**
+     * returns the number of lines of a stripe. Stripes start on a 
+     * multiple of 64 dots, so that storages packing 64 dots in a word
+     * never have a word written by two stripes.
+     * 
+     * @param heigth
+     *            the heigth of the board
+     * @return the number of lines of each stripe
+     */
+    private static int linesPerStripe(int heigth) {
+
+        int unit = 64 / Math.min(Integer.lowestOneBit(heigth), 64);
+
+        return Math.max(unit, DOTS_PER_STRIPE / heigth / unit * unit);
+
+    }
+
+    /**
+     * Runs tasks on the pool and waits for all of them
+     * 
+     * @param tasks
+     *            the tasks to run
+     */
+    private void runAll(List<Callable<Void>> tasks) {
+
+        try {
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("board generation interrupted", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("board generation failed", e.getCause());
+        }
+
+    }
+
+}
@@ -0,0 +1,1208 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The class <b>ProbabilityEngine</b> computes, for every covered dot of a
+ * <b>GameModel</b>, the probability that it is mined given the numbers
+ * uncovered so far and the total number of mines. It is meant to choose
+ * the best guess when the <b>Solver</b> cannot prove any move.
+ *
+ * The covered dots next to an uncovered number (the frontier) are split 
+ * into independent components: two dots are in the same component when
+ * they are linked by a chain of numbers. Each component is enumerated 
+ * with backtracking, counting its solutions by number of mines; the 
+ * exact results are memoized, so that a component that did not change
+ * since the previous call is not enumerated again. The components are then
+ * combined, weighting each total number of mines on the frontier by the
+ * number of ways to place the other mines on the remaining covered dots
+ * (the interior).
+ *
+ * The backtracking works on parts: the dots of a component not assigned
+ * yet, in the order of assignment. Once a dot is assigned, the rest of a
+ * part may fall apart in pieces linked by no number, which are counted
+ * on their own and combined by convolution. The result of a part only
+ * depends on what is left of the numbers around it, so it is memoized
+ * for the enumeration of the component: a part met again with the same
+ * numbers left is not enumerated again.
+ *
+ * The enumeration of a component stops when it exceeds a budget of 
+ * backtracking steps or a timeout. That component is then estimated by
+ * sampling, and <b>isExact</b> returns false. Each sample assigns the
+ * dots in order, each dot taking at random one of the values that keep
+ * the numbers satisfiable, and is weighted by the inverse of its
+ * probability to be drawn, 2 to the power of the number of random
+ * choices (Knuth's estimator); the samples that end in a contradiction
+ * weigh nothing. The counts by number of mines, of the component and of
+ * each dot, are thus estimated without bias, and combined as the exact
+ * ones; the probabilities, ratios of these estimates, remain estimates.
+ *
+ * As for the <b>Solver</b>, flags are ignored.
+ *
+ */
+
+public class ProbabilityEngine {
+
+    private static final int SAMPLES = 2000;
+
+    /**
+     * largest number of counts, of all the memoized results together:
+     * 4M doubles, or 32 MB
+     */
+    private static final long MAX_CACHED_CELLS = 1 << 22;
+
+    private static final int MAX_EXACT_DOTS = 1000;
+
+    private GameModel gameModel;
+
+    private int width, heigth;
+
+    private Topology topology;
+
+    private long budget = 1000000;
+
+    private long timeout = 100000000;
+
+    private double[] probabilities;
+
+    private boolean exact;
+
+    private int[] component;
+
+    private HashMap<Key, Result> cache = new HashMap<Key, Result>();
+
+    private long cachedCells;
+
+    private int resetsSeen = -1;
+
+    private SplitMixRandom generator = new SplitMixRandom(0);
+
+    // state of the current enumeration
+    private int[] cells;
+    private int[][] constraintCells;
+    private int[] constraintValues;
+    private int[][] cellConstraints;
+    private int[] remaining;
+    private int[] unassigned;
+    private boolean[] mined;
+    private long nodes;
+    private long limit;
+    private long deadline;
+    private long memoCells;
+    private int stamp;
+    private int[] inPart;
+    private int[] piece;
+    private int[] queue;
+    private int[] constraintStamps;
+    private int[] constraintSizes;
+
+    /**
+     * Constructor used for initializing the engine on a model
+     * 
+     * @param gameModel
+     *            the model of the game
+     */
+    public ProbabilityEngine(GameModel gameModel) {
+
+        this.gameModel = gameModel;
+        width = gameModel.getWidth();
+        heigth = gameModel.getHeigth();
+        topology = gameModel.getTopology();
+        probabilities = new double[width*heigth];
+        component = new int[width*heigth];
+
+    }
+
+    /**
+     * Sets the limits of the exact enumeration of a component
+     * 
+     * @param steps
+     *            the maximum number of backtracking steps per component
+     * @param nanos
+     *            the maximum time, in nanoseconds, of a call to compute
+     */
+    public void setBudget(long steps, long nanos) {
+
+        budget = steps;
+        timeout = nanos;
+
+    }
+
+    /**
+     * Computes the probability of each covered dot to be mined
+     * 
+     * @return true if all the probabilities are exact
+     */
+    public boolean compute() {
+
+        int size = width*heigth;
+        int uncoveredMines = 0;
+        int interior = 0;
+        int components;
+        int[] parent = component;
+        IndexList frontier = new IndexList(64);
+        IndexList numbers = new IndexList(64);
+        int[] neighboors = new int[topology.getMaxNeighboors()];
+
+        if (resetsSeen != gameModel.getNumberOfResets()) {
+            resetsSeen = gameModel.getNumberOfResets();
+            cache.clear();
+            cachedCells = 0;
+        }
+
+        deadline = System.nanoTime() + timeout;
+        exact = true;
+
+        // the frontier, and the components with a union-find on the dots
+        Arrays.fill(parent, -1);
+        for (int k = 0; k < size; k++) {
+            if (!isCovered(k)) {
+                if (isMined(k)) {
+                    uncoveredMines++;
+                }
+                else if (coveredNeighboors(k, neighboors) > 0) {
+                    numbers.push(k);
+                }
+            }
+        }
+        for (int n = 0; n < numbers.size(); n++) {
+            int count = coveredNeighboors(numbers.get(n), neighboors);
+            for (int m = 0; m < count; m++) {
+                if (parent[neighboors[m]] == -1) {
+                    parent[neighboors[m]] = neighboors[m];
+                    frontier.push(neighboors[m]);
+                }
+                union(parent, neighboors[0], neighboors[m]);
+            }
+        }
+        for (int k = 0; k < size; k++) {
+            if (isCovered(k) && parent[k] == -1) {
+                interior++;
+            }
+        }
+
+        // the cells of each component, grouped by their root
+        HashMap<Integer, IndexList> groups = new HashMap<Integer, IndexList>();
+        for (int f = 0; f < frontier.size(); f++) {
+            int k = frontier.get(f);
+            groups.computeIfAbsent(find(parent, k), r -> new IndexList(16)).push(k);
+        }
+        HashMap<Integer, IndexList> groupNumbers = new HashMap<Integer, IndexList>();
+        for (int n = 0; n < numbers.size(); n++) {
+            coveredNeighboors(numbers.get(n), neighboors);
+            groupNumbers.computeIfAbsent(find(parent, neighboors[0]), r -> new IndexList(16)).push(numbers.get(n));
+        }
+
+        components = groups.size();
+        Result[] results = new Result[components];
+        int[][] members = new int[components][];
+        int c = 0;
+        for (Integer root : groups.keySet()) {
+            members[c] = toArray(groups.get(root));
+            results[c] = solve(members[c], toArray(groupNumbers.get(root)));
+            exact = exact && results[c].exact;
+            c++;
+        }
+
+        combine(results, members, interior, gameModel.getNumberOfMines() - uncoveredMines);
+        return exact;
+
+    }
+
+    /**
+     * returns true if the last call to compute gave exact probabilities
+     * 
+     * @return true if no component had to be sampled
+     */
+    public boolean isExact() {
+
+        return exact;
+
+    }
+
+    /**
+     * returns the probability that the dot at location (i,j) is mined, as
+     * computed by the last call to compute
+     * 
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the probability, or NaN if the dot is uncovered
+     */
+    public double getProbability(int i, int j) {
+
+        return probabilities[i*heigth + j];
+
+    }
+
+    /**
+     * returns the covered dot that is the least likely to be mined
+     * 
+     * @return the index i*heigth+j of the dot, or -1 if there is no 
+     *  covered dot
+     */
+    public int getBestGuess() {
+
+        int best = -1;
+
+        for (int k = 0; k < probabilities.length; k++) {
+            if (!Double.isNaN(probabilities[k]) && (best < 0 || probabilities[k] < probabilities[best])) {
+                best = k;
+            }
+        }
+        return best;
+
+    }
+
+    /**
+     * Combines the results of the components with the number of ways to
+     * place the remaining mines in the interior
+     * 
+     * @param results
+     *            the results of the components
+     * @param members
+     *            the dots of each component
+     * @param interior
+     *            the number of covered dots outside of the frontier
+     * @param mines
+     *            the number of mines that are still covered
+     */
+    private void combine(Result[] results, int[][] members, int interior, int mines) {
+
+        int components = results.length;
+        double[][] prefix = new double[components + 1][];
+        double[][] suffix = new double[components + 1][];
+        double[] binomials;
+        double total, interiorMines;
+
+        prefix[0] = new double[] {1};
+        for (int c = 0; c < components; c++) {
+            prefix[c+1] = convolve(prefix[c], results[c].counts);
+        }
+        suffix[components] = new double[] {1};
+        for (int c = components - 1; c >= 0; c--) {
+            suffix[c] = convolve(results[c].counts, suffix[c+1]);
+        }
+
+        binomials = binomials(prefix[components].length, interior, mines);
+
+        total = 0;
+        interiorMines = 0;
+        for (int k = 0; k < prefix[components].length; k++) {
+            total += prefix[components][k] * binomials[k];
+            if (interior > 0) {
+                interiorMines += prefix[components][k] * binomials[k] * (mines - k);
+            }
+        }
+
+        Arrays.fill(probabilities, Double.NaN);
+        if (total <= 0) {
+            // the estimates are not consistent with the number of mines
+            int covered = gameModel.getNumberCovered();
+            for (int k = 0; k < probabilities.length; k++) {
+                if (isCovered(k)) {
+                    probabilities[k] = (double) mines / covered;
+                }
+            }
+            return;
+        }
+        for (int k = 0; k < probabilities.length; k++) {
+            if (isCovered(k)) {
+                probabilities[k] = interior > 0 ? interiorMines / total / interior : 0;
+            }
+        }
+
+        for (int c = 0; c < components; c++) {
+            double[] others = convolve(prefix[c], suffix[c+1]);
+            double[] weights = new double[results[c].counts.length];
+            for (int m = 0; m < weights.length; m++) {
+                for (int k = 0; k < others.length && m + k < binomials.length; k++) {
+                    weights[m] += others[k] * binomials[m + k];
+                }
+            }
+            double[] cellWeights = results[c].weights(weights);
+            for (int x = 0; x < members[c].length; x++) {
+                probabilities[members[c][x]] = cellWeights[x] / total;
+            }
+        }
+
+    }
+
+    /**
+     * Computes, for each number k of mines on the frontier, the number of
+     * ways to place the other mines in the interior, scaled by a common
+     * factor to stay within the range of doubles
+     * 
+     * @param length
+     *            the number of values of k
+     * @param interior
+     *            the number of dots of the interior
+     * @param mines
+     *            the number of covered mines
+     * @return the scaled binomial coefficients
+     */
+    private static double[] binomials(int length, int interior, int mines) {
+
+        double[] logs = new double[length];
+        double[] binomials = new double[length];
+        double max = Double.NEGATIVE_INFINITY;
+
+        for (int k = 0; k < length; k++) {
+            logs[k] = Combinatorics.logChoose(interior, mines - k);
+            max = Math.max(max, logs[k]);
+        }
+        for (int k = 0; k < length; k++) {
+            binomials[k] = max == Double.NEGATIVE_INFINITY ? 0 : Math.exp(logs[k] - max);
+        }
+        return binomials;
+
+    }
+
+    /**
+     * Enumerates the solutions of a component, or returns the memoized
+     * result if the component was already solved
+     * 
+     * @param members
+     *            the dots of the component
+     * @param numbers
+     *            the uncovered numbers around the component
+     * @return the result of the component
+     */
+    private Result solve(int[] members, int[] numbers) {
+
+        int[] neighboors = new int[topology.getMaxNeighboors()];
+        Result result;
+        Key key;
+
+        Arrays.sort(members);
+        Arrays.sort(numbers);
+
+        cells = members;
+        constraintCells = new int[numbers.length][];
+        constraintValues = new int[numbers.length];
+        int[] keyValues = new int[members.length + 2*numbers.length];
+        for (int x = 0; x < members.length; x++) {
+            keyValues[x] = members[x];
+        }
+        for (int n = 0; n < numbers.length; n++) {
+            int count = coveredNeighboors(numbers[n], neighboors);
+            int value = number(numbers[n]) - uncoveredMinedNeighboors(numbers[n]);
+            constraintCells[n] = new int[count];
+            for (int m = 0; m < count; m++) {
+                constraintCells[n][m] = Arrays.binarySearch(members, neighboors[m]);
+            }
+            constraintValues[n] = value;
+            keyValues[members.length + 2*n] = numbers[n];
+            keyValues[members.length + 2*n + 1] = value;
+        }
+
+        key = new Key(keyValues);
+        result = cache.get(key);
+        if (result != null) {
+            return result;
+        }
+
+        int[] sizes = new int[members.length];
+        for (int[] constraint : constraintCells) {
+            for (int x : constraint) {
+                sizes[x]++;
+            }
+        }
+        cellConstraints = new int[members.length][];
+        for (int x = 0; x < members.length; x++) {
+            cellConstraints[x] = new int[sizes[x]];
+            sizes[x] = 0;
+        }
+        for (int n = 0; n < constraintCells.length; n++) {
+            for (int x : constraintCells[n]) {
+                cellConstraints[x][sizes[x]++] = n;
+            }
+        }
+
+        int[] order = order();
+        remaining = constraintValues.clone();
+        unassigned = new int[numbers.length];
+        for (int n = 0; n < numbers.length; n++) {
+            unassigned[n] = constraintCells[n].length;
+        }
+        mined = new boolean[members.length];
+        nodes = 0;
+        limit = budget;
+
+        if (members.length > MAX_EXACT_DOTS) {
+            result = sample(order);
+        }
+        else {
+            stamp = 0;
+            inPart = new int[members.length];
+            piece = new int[members.length];
+            queue = new int[members.length];
+            constraintStamps = new int[numbers.length];
+            constraintSizes = new int[numbers.length];
+            memoCells = 0;
+            result = enumerate(new Part(order));
+            if (result == null) {
+                result = sample(order);
+            }
+            else {
+                result.reorder(order);
+            }
+        }
+
+        if (result.exact) {
+            if (cachedCells + result.cells() > MAX_CACHED_CELLS) {
+                cache.clear();
+                cachedCells = 0;
+            }
+            if (result.cells() <= MAX_CACHED_CELLS) {
+                cache.put(key, result);
+                cachedCells += result.cells();
+            }
+        }
+        return result;
+
+    }
+
+    /**
+     * Orders the dots of the component so that each dot shares a number
+     * with the previous ones when possible, which makes the constraints
+     * fail early during the backtracking
+     * 
+     * @return the order in which the dots are assigned
+     */
+    private int[] order() {
+
+        int[] order = new int[cells.length];
+        boolean[] placed = new boolean[cells.length];
+        int head = 0, tail = 0;
+
+        for (int start = 0; start < cells.length; start++) {
+            if (placed[start]) {
+                continue;
+            }
+            placed[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int x = order[head++];
+                for (int n : cellConstraints[x]) {
+                    for (int y : constraintCells[n]) {
+                        if (!placed[y]) {
+                            placed[y] = true;
+                            order[tail++] = y;
+                        }
+                    }
+                }
+            }
+        }
+        return order;
+
+    }
+
+    /**
+     * Counts the solutions of a part by backtracking on its first dot, or
+     * by combining the counts of its pieces if it is made of several
+     * pieces linked by no number. The results are memoized by part and by
+     * the values left of the numbers around the part.
+     * 
+     * @param part
+     *            the part, whose dots are not assigned
+     * @return the exact result of the part, its dots in the order of the
+     *  part, or null if the budget or the timeout was exceeded
+     */
+    private Result enumerate(Part part) {
+
+        Result result;
+        Key key;
+
+        if (++nodes > limit || (nodes & 0x3F) == 0 && System.nanoTime() > deadline) {
+            return null;
+        }
+        if (part.dots.length == 0) {
+            return Result.EMPTY;
+        }
+        if (part.memo == null) {
+            expand(part);
+        }
+
+        int[] values = new int[part.constraints.length];
+        for (int n = 0; n < values.length; n++) {
+            values[n] = remaining[part.constraints[n]];
+        }
+        key = new Key(values);
+        result = part.memo.get(key);
+        if (result != null) {
+            return result;
+        }
+
+        if (part.pieces != null) {
+            Result[] results = new Result[part.pieces.length];
+            for (int p = 0; p < results.length; p++) {
+                results[p] = enumerate(part.pieces[p]);
+                if (results[p] == null) {
+                    return null;
+                }
+            }
+            result = Result.join(part.dots.length, results, part.positions);
+        }
+        else {
+            int x = part.dots[0];
+            Result[] rest = new Result[2];
+            for (int value = 0; value <= 1; value++) {
+                if (assign(x, value)) {
+                    rest[value] = enumerate(part.rest);
+                    if (rest[value] == null) {
+                        unassign(x, value);
+                        return null;
+                    }
+                }
+                unassign(x, value);
+            }
+            result = Result.extend(part.dots.length, rest[0], rest[1]);
+        }
+
+        if (memoCells + result.cells() <= MAX_CACHED_CELLS) {
+            part.memo.put(key, result);
+            memoCells += result.cells();
+        }
+        return result;
+
+    }
+
+    /**
+     * Splits a part in its pieces linked by no number, or finds the rest
+     * of the part once its first dot is assigned if it is all of a piece,
+     * and the numbers around the part that also have assigned dots
+     * 
+     * @param part
+     *            the part, met for the first time
+     */
+    private void expand(Part part) {
+
+        int[] dots = part.dots;
+        int pieces = 0;
+        int head, tail;
+        IndexList constraints = new IndexList(16);
+
+        stamp++;
+        for (int x : dots) {
+            inPart[x] = stamp;
+            piece[x] = -1;
+        }
+
+        for (int x : dots) {
+            if (piece[x] >= 0) {
+                continue;
+            }
+            piece[x] = pieces;
+            head = 0;
+            tail = 0;
+            queue[tail++] = x;
+            while (head < tail) {
+                int y = queue[head++];
+                for (int n : cellConstraints[y]) {
+                    for (int z : constraintCells[n]) {
+                        if (inPart[z] == stamp && piece[z] < 0) {
+                            piece[z] = pieces;
+                            queue[tail++] = z;
+                        }
+                    }
+                }
+            }
+            pieces++;
+        }
+
+        for (int x : dots) {
+            for (int n : cellConstraints[x]) {
+                if (constraintStamps[n] != stamp) {
+                    constraintStamps[n] = stamp;
+                    constraintSizes[n] = 0;
+                    constraints.push(n);
+                }
+                constraintSizes[n]++;
+            }
+        }
+        part.constraints = new int[constraints.size()];
+        int active = 0;
+        for (int c = 0; c < constraints.size(); c++) {
+            int n = constraints.get(c);
+            if (constraintSizes[n] < constraintCells[n].length) {
+                part.constraints[active++] = n;
+            }
+        }
+        part.constraints = Arrays.copyOf(part.constraints, active);
+
+        if (pieces > 1) {
+            int[] sizes = new int[pieces];
+            for (int x : dots) {
+                sizes[piece[x]]++;
+            }
+            part.positions = new int[pieces][];
+            for (int p = 0; p < pieces; p++) {
+                part.positions[p] = new int[sizes[p]];
+                sizes[p] = 0;
+            }
+            for (int position = 0; position < dots.length; position++) {
+                int p = piece[dots[position]];
+                part.positions[p][sizes[p]++] = position;
+            }
+            part.pieces = new Part[pieces];
+            for (int p = 0; p < pieces; p++) {
+                int[] pieceDots = new int[part.positions[p].length];
+                for (int y = 0; y < pieceDots.length; y++) {
+                    pieceDots[y] = dots[part.positions[p][y]];
+                }
+                part.pieces[p] = new Part(pieceDots);
+            }
+        }
+        else {
+            part.rest = new Part(Arrays.copyOfRange(dots, 1, dots.length));
+        }
+        part.memo = new HashMap<Key, Result>();
+
+    }
+
+    /**
+     * Estimates a component whose enumeration was too long, with the
+     * weighted samples of <b>randomSolution</b>
+     * 
+     * @param order
+     *            the order in which the dots are assigned
+     * @return the estimated result of the component
+     */
+    private Result sample(int[] order) {
+
+        Result estimate = new Result(cells.length);
+
+        for (int s = 0; s < SAMPLES && System.nanoTime() < deadline; s++) {
+            randomSolution(order, estimate);
+        }
+
+        if (estimate.samples == 0) {
+            estimate.guess();
+        }
+        return estimate;
+
+    }
+
+    /**
+     * Draws one random assignment of the dots, without backtracking: each
+     * dot in turn takes at random one of the values that keep the numbers
+     * satisfiable. A complete assignment is a solution, which is recorded
+     * with the weight 2^choices, the inverse of its probability to be
+     * drawn; an assignment that ends in a contradiction is dropped.
+     * 
+     * @param order
+     *            the order in which the dots are assigned
+     * @param estimate
+     *            the result in which the solution is recorded
+     */
+    private void randomSolution(int[] order, Result estimate) {
+
+        int position, value;
+        int mines = 0, choices = 0;
+        boolean zero, one;
+
+        for (position = 0; position < order.length; position++) {
+            int x = order[position];
+            zero = assign(x, 0);
+            unassign(x, 0);
+            one = assign(x, 1);
+            unassign(x, 1);
+            if (zero && one) {
+                value = generator.nextInt(2);
+                choices++;
+            }
+            else if (zero || one) {
+                value = one ? 1 : 0;
+            }
+            else {
+                break;
+            }
+            assign(x, value);
+            mines += value;
+        }
+
+        if (position == order.length) {
+            estimate.record(mined, mines, choices);
+        }
+        for (position--; position >= 0; position--) {
+            int x = order[position];
+            unassign(x, mined[x] ? 1 : 0);
+        }
+
+    }
+
+    /**
+     * Assigns a value to a dot, and checks the numbers around it
+     * 
+     * @param x
+     *            the dot, in the component
+     * @param value
+     *            1 for a mine, 0 otherwise
+     * @return true if the numbers can still be satisfied
+     */
+    private boolean assign(int x, int value) {
+
+        boolean possible = true;
+
+        mined[x] = value == 1;
+        for (int n : cellConstraints[x]) {
+            unassigned[n]--;
+            remaining[n] -= value;
+            possible = possible && remaining[n] >= 0 && remaining[n] <= unassigned[n];
+        }
+        return possible;
+
+    }
+
+    /**
+     * Cancels the assignment of a value to a dot
+     * 
+     * @param x
+     *            the dot, in the component
+     * @param value
+     *            the value that was assigned
+     */
+    private void unassign(int x, int value) {
+
+        mined[x] = false;
+        for (int n : cellConstraints[x]) {
+            unassigned[n]++;
+            remaining[n] += value;
+        }
+
+    }
+
+    /**
+     * Convolution of two distributions of numbers of mines
+     * 
+     * @param a
+     *            the first distribution
+     * @param b
+     *            the second distribution
+     * @return the distribution of the sum
+     */
+    private static double[] convolve(double[] a, double[] b) {
+
+        double[] sum = new double[a.length + b.length - 1];
+
+        for (int m = 0; m < a.length; m++) {
+            if (a[m] != 0) {
+                for (int k = 0; k < b.length; k++) {
+                    sum[m + k] += a[m] * b[k];
+                }
+            }
+        }
+        return sum;
+
+    }
+
+    private int coveredNeighboors(int k, int[] neighboors) {
+
+        int[] around = topology.offsets(k);
+        int n = 0;
+
+        for (int m = 0; m < around.length; m++) {
+            if (isCovered(k + around[m])) {
+                neighboors[n++] = k + around[m];
+            }
+        }
+        return n;
+
+    }
+
+    private int uncoveredMinedNeighboors(int k) {
+
+        int[] around = topology.offsets(k);
+        int n = 0;
+
+        for (int m = 0; m < around.length; m++) {
+            if (!isCovered(k + around[m]) && isMined(k + around[m])) {
+                n++;
+            }
+        }
+        return n;
+
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        parent[find(parent, a)] = find(parent, b);
+    }
+
+    private static int find(int[] parent, int k) {
+        while (parent[k] != k) {
+            parent[k] = parent[parent[k]];
+            k = parent[k];
+        }
+        return k;
+    }
+
+    private static int[] toArray(IndexList list) {
+        int[] array = new int[list.size()];
+        for (int n = 0; n < array.length; n++) {
+            array[n] = list.get(n);
+        }
+        return array;
+    }
+
+    private int number(int k) {
+        return gameModel.getNeighbooringMines(k / heigth, k % heigth);
+    }
+
+    private boolean isCovered(int k) {
+        return gameModel.isCovered(k / heigth, k % heigth);
+    }
+
+    private boolean isMined(int k) {
+        return gameModel.isMined(k / heigth, k % heigth);
+    }
+
+    /**
+     * The class <b>Part</b> is a set of dots of a component, in the order
+     * in which they are assigned, met during the enumeration when all the
+     * other dots of the component are assigned. Its pieces, or its rest,
+     * are found the first time the part is met, and kept with its memoized
+     * results.
+     */
+    private static class Part {
+
+        private int[] dots;
+
+        private int[] constraints;
+
+        private Part rest;
+
+        private Part[] pieces;
+
+        private int[][] positions;
+
+        private HashMap<Key, Result> memo;
+
+        private Part(int[] dots) {
+            this.dots = dots;
+        }
+
+    }
+
+    /**
+     * The class <b>Result</b> holds the solutions of a component, or of a
+     * part of it: their number for each number of mines and, for each dot,
+     * the number of solutions in which it is mined for each number of
+     * mines. The counts of the dots are only kept for the numbers of mines
+     * from low to high, which are usually a few around the middle: a
+     * memoized result does not keep a square matrix of the size of its
+     * component.
+     *
+     * An estimated result holds the same counts, estimated from weighted
+     * samples; it keeps the samples themselves rather than the counts of
+     * each dot.
+     */
+    private static class Result {
+
+        private static final Result EMPTY = new Result(0, 0, 0);
+
+        private double[] counts;
+
+        private double[][] cellCounts;
+
+        private int low, high;
+
+        private boolean exact;
+
+        private boolean guessed;
+
+        private int samples;
+
+        private int exponent;
+
+        private double[] sampleWeights;
+
+        private int[] sampleMines;
+
+        private IndexList sampleEnds;
+
+        private IndexList sampleDots;
+
+        private Result(int size, int low, int high) {
+
+            exact = true;
+            counts = new double[size + 1];
+            this.low = low;
+            this.high = high;
+            cellCounts = new double[size][Math.max(0, high - low + 1)];
+            if (size == 0) {
+                counts[0] = 1;
+            }
+
+        }
+
+        private Result(int size) {
+
+            counts = new double[size + 1];
+            cellCounts = new double[size][];
+            sampleWeights = new double[SAMPLES];
+            sampleMines = new int[SAMPLES];
+            sampleEnds = new IndexList(SAMPLES);
+            sampleDots = new IndexList(64);
+
+        }
+
+        /**
+         * returns the result of a part from the results of its rest, once
+         * its first dot is assigned
+         *
+         * @param size
+         *            the number of dots of the part
+         * @param zero
+         *            the result of the rest if the first dot is not mined,
+         *            or null if it must be
+         * @param one
+         *            the result of the rest if the first dot is mined, or
+         *            null if it cannot be
+         * @return the result of the part
+         */
+        private static Result extend(int size, Result zero, Result one) {
+
+            int low = Integer.MAX_VALUE, high = -1;
+            Result result;
+
+            if (zero != null && zero.low <= zero.high) {
+                low = zero.low;
+                high = zero.high;
+            }
+            if (one != null && one.low <= one.high) {
+                low = Math.min(low, one.low + 1);
+                high = Math.max(high, one.high + 1);
+            }
+            result = high < 0 ? new Result(size, 0, -1) : new Result(size, low, high);
+            result.add(zero, 0);
+            result.add(one, 1);
+            return result;
+
+        }
+
+        /**
+         * Adds the solutions of the rest of a part for a value of its
+         * first dot
+         *
+         * @param rest
+         *            the result of the rest, or null
+         * @param value
+         *            1 if the first dot is mined, 0 otherwise
+         */
+        private void add(Result rest, int value) {
+
+            if (rest == null) {
+                return;
+            }
+            for (int m = rest.low; m <= rest.high; m++) {
+                counts[m + value] += rest.counts[m];
+                if (value == 1) {
+                    cellCounts[0][m + 1 - low] += rest.counts[m];
+                }
+                for (int y = 0; y < rest.cellCounts.length; y++) {
+                    cellCounts[y + 1][m + value - low] += rest.cellCounts[y][m - rest.low];
+                }
+            }
+
+        }
+
+        /**
+         * returns the result of a part made of pieces linked by no number,
+         * from the results of the pieces
+         *
+         * @param size
+         *            the number of dots of the part
+         * @param pieces
+         *            the results of the pieces
+         * @param positions
+         *            the position in the part of the dots of each piece
+         * @return the result of the part
+         */
+        private static Result join(int size, Result[] pieces, int[][] positions) {
+
+            int count = pieces.length;
+            int low = 0, high = 0;
+            double[][] prefix = new double[count + 1][];
+            double[][] suffix = new double[count + 1][];
+            Result result;
+
+            for (Result piece : pieces) {
+                if (piece.low > piece.high) {
+                    return new Result(size, 0, -1);
+                }
+                low += piece.low;
+                high += piece.high;
+            }
+
+            prefix[0] = new double[] {1};
+            for (int p = 0; p < count; p++) {
+                prefix[p+1] = convolve(prefix[p], pieces[p].counts);
+            }
+            suffix[count] = new double[] {1};
+            for (int p = count - 1; p >= 0; p--) {
+                suffix[p] = convolve(pieces[p].counts, suffix[p+1]);
+            }
+
+            result = new Result(size, low, high);
+            result.counts = prefix[count];
+            for (int p = 0; p < count; p++) {
+                Result piece = pieces[p];
+                double[] others = convolve(prefix[p], suffix[p+1]);
+                for (int y = 0; y < piece.cellCounts.length; y++) {
+                    double[] row = result.cellCounts[positions[p][y]];
+                    for (int m = piece.low; m <= piece.high; m++) {
+                        double cell = piece.cellCounts[y][m - piece.low];
+                        if (cell != 0) {
+                            for (int k = low - piece.low; k <= high - piece.high; k++) {
+                                row[m + k - low] += cell * others[k];
+                            }
+                        }
+                    }
+                }
+            }
+            return result;
+
+        }
+
+        /**
+         * Puts the counts of the dots of the result of a component, found
+         * in the order of assignment, back in the order of the component
+         *
+         * @param order
+         *            the dot of the component at each position
+         */
+        private void reorder(int[] order) {
+
+            double[][] rows = new double[cellCounts.length][];
+
+            for (int position = 0; position < order.length; position++) {
+                rows[order[position]] = cellCounts[position];
+            }
+            cellCounts = rows;
+
+        }
+
+        /**
+         * returns the number of counts held by an exact result
+         *
+         * @return the number of doubles of the result
+         */
+        private long cells() {
+
+            return counts.length + (long) cellCounts.length * Math.max(0, high - low + 1);
+
+        }
+
+        /**
+         * Records a sampled solution, of weight 2^choices. The weights are
+         * kept relative to the largest one, so that they stay within the
+         * range of doubles.
+         *
+         * @param mined
+         *            the mined dots of the solution
+         * @param mines
+         *            the number of mines of the solution
+         * @param choices
+         *            the number of random choices made to draw it
+         */
+        private void record(boolean[] mined, int mines, int choices) {
+
+            if (samples == 0 || choices > exponent) {
+                double scale = samples == 0 ? 1 : Math.scalb(1.0, exponent - choices);
+                for (int m = 0; m < counts.length; m++) {
+                    counts[m] *= scale;
+                }
+                for (int s = 0; s < samples; s++) {
+                    sampleWeights[s] *= scale;
+                }
+                exponent = choices;
+            }
+
+            double weight = Math.scalb(1.0, choices - exponent);
+            counts[mines] += weight;
+            for (int x = 0; x < mined.length; x++) {
+                if (mined[x]) {
+                    sampleDots.push(x);
+                }
+            }
+            sampleEnds.push(sampleDots.size());
+            sampleWeights[samples] = weight;
+            sampleMines[samples++] = mines;
+
+        }
+
+        /**
+         * Used when no solution could be found: every dot is given the
+         * same chance to be mined as not
+         */
+        private void guess() {
+
+            guessed = true;
+            counts[cellCounts.length / 2] = 1;
+
+        }
+
+        /**
+         * returns the weight of the solutions in which each dot is mined
+         * 
+         * @param weights
+         *            the weight of each number of mines of the component
+         * @return the weight of each dot being mined
+         */
+        private double[] weights(double[] weights) {
+
+            double[] cellWeights = new double[cellCounts.length];
+
+            if (exact) {
+                for (int x = 0; x < cellWeights.length; x++) {
+                    for (int m = low; m <= high && m < weights.length; m++) {
+                        cellWeights[x] += cellCounts[x][m - low] * weights[m];
+                    }
+                }
+            }
+            else if (guessed) {
+                Arrays.fill(cellWeights, weights[cellWeights.length / 2] / 2);
+            }
+            else {
+                int start = 0;
+                for (int s = 0; s < samples; s++) {
+                    double weight = sampleWeights[s] * weights[sampleMines[s]];
+                    for (int d = start; d < sampleEnds.get(s); d++) {
+                        cellWeights[sampleDots.get(d)] += weight;
+                    }
+                    start = sampleEnds.get(s);
+                }
+            }
+            return cellWeights;
+
+        }
+
+    }
+
+    /**
+     * The class <b>Key</b> identifies a component by its dots and its
+     * numbers, to memoize its result
+     */
+    private static class Key {
+
+        private int[] values;
+
+        private int hash;
+
+        private Key(int[] values) {
+            this.values = values;
+            hash = Arrays.hashCode(values);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(values, ((Key) other).values);
+        }
+
+    }
+
+}
@@ -0,0 +1,47 @@
+/**
+ * The class <b>RandomStrategy</b> is the simplest <b>MoveStrategy</b>:
+ * it reveals a covered, unflagged dot chosen at random. It is mostly
+ * useful as a baseline for other strategies.
+ *
+ */
+
+public class RandomStrategy implements MoveStrategy {
+
+    private long seed;
+
+    private SplitMixRandom generator;
+
+    /**
+     * Constructor, used to initialize the strategy with a seed
+     * 
+     * @param seed
+     *            the seed of the choices of the strategy
+     */
+    public RandomStrategy(long seed) {
+
+        this.seed = seed;
+        generator = new SplitMixRandom(seed);
+
+    }
+
+    public void newGame(GameEngine engine) {
+
+        generator.setSeed(SplitMixRandom.mix(seed ^ engine.getModel().getSeed()));
+
+    }
+
+    public MoveResult play(GameEngine engine) {
+
+        GameModel gameModel = engine.getModel();
+        int i, j;
+
+        do {
+            i = generator.nextInt(gameModel.getWidth());
+            j = generator.nextInt(gameModel.getHeigth());
+        } while (!gameModel.isCovered(i, j) || gameModel.isFlagged(i, j));
+
+        return engine.reveal(i, j);
+
+    }
+
+}
@@ -0,0 +1,319 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * The class <b>SimulationRunner</b> plays a large number of games with a
+ * <b>MoveStrategy</b>, without any display, and reports the number of
+ * games per second, the rate of won games and the histogram of the number
+ * of moves per game.
+ *
+ * The games are split between a number of threads. Each thread has its
+ * own model, engine and strategy, and its own share of the statistics, 
+ * which are only merged at the end: the threads only share the counter
+ * from which they take blocks of BLOCK games, so the throughput grows 
+ * with the number of cores. The board of each game is generated from a
+ * seed derived from the seed of the simulation and the index of the 
+ * game, and the strategies draw their choices from the seed of the
+ * board: a simulation can be run again, with the same results whatever
+ * the number of threads.
+ *
+ * Usage: java SimulationRunner [width heigth numberOfMines games threads [random|solver]]
+ *
+ */
+
+public class SimulationRunner {
+
+    /**
+     * number of games taken at once by a thread
+     */
+    private static final int BLOCK = 256;
+
+    private int width, heigth, numberOfMines;
+
+    private LongFunction<MoveStrategy> strategies;
+
+    /**
+     * Constructor used for initializing a runner
+     * 
+     * @param width
+     *            the width of the boards
+     * @param heigth
+     *            the heigth of the boards
+     * @param numberOfMines
+     *            the number of mines hidden in each board
+     * @param strategies
+     *            creates the strategy of a thread from a seed
+     */
+    public SimulationRunner(int width, int heigth, int numberOfMines, LongFunction<MoveStrategy> strategies) {
+
+        this.width = width;
+        this.heigth = heigth;
+        this.numberOfMines = numberOfMines;
+        this.strategies = strategies;
+
+    }
+
+    /**
+     * Plays the games and collects their statistics
+     * 
+     * @param games
+     *            the number of games to play
+     * @param threads
+     *            the number of threads to use
+     * @param seed
+     *            the seed of the simulation
+     * @return the statistics of the games
+     */
+    public Report run(long games, int threads, long seed) {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Report>> results = new ArrayList<Future<Report>>();
+        AtomicLong next = new AtomicLong();
+        Report report = new Report(maxMoves());
+        long start = System.nanoTime();
+
+        try {
+            for (int n = 0; n < threads; n++) {
+                results.add(executor.submit(() -> play(games, seed, next)));
+            }
+            for (Future<Report> result : results) {
+                report.add(result.get());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("simulation interrupted", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("simulation failed", e.getCause());
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        report.nanos = System.nanoTime() - start;
+        return report;
+
+    }
+
+    /**
+     * Plays games on the current thread, taking them by blocks from a
+     * counter shared by the threads, until all the games are taken. The
+     * board of the game of index n is generated from the seed
+     * mix(seed + n).
+     * 
+     * @param games
+     *            the number of games of the simulation
+     * @param seed
+     *            the seed of the simulation
+     * @param next
+     *            the index of the next game not taken by a thread
+     * @return the statistics of the games played by the thread
+     */
+    private Report play(long games, long seed, AtomicLong next) {
+
+        GameModel gameModel = new GameModel.Builder(width, heigth, numberOfMines)
+            .packed(true).build();
+        GameEngine gameEngine = new GameEngine(gameModel);
+        MoveStrategy strategy = strategies.apply(SplitMixRandom.mix(seed));
+        Report report = new Report(maxMoves());
+        MoveResult result;
+        int attempts;
+
+        for (long first = next.getAndAdd(BLOCK); first < games; first = next.getAndAdd(BLOCK)) {
+            for (long n = first; n < Math.min(first + BLOCK, games); n++) {
+                gameEngine.reset(SplitMixRandom.mix(seed + n));
+                strategy.newGame(gameEngine);
+
+                result = MoveResult.CONTINUE;
+                attempts = 0;
+                while (!gameEngine.isOver() && attempts < 4*width*heigth) {
+                    result = strategy.play(gameEngine);
+                    attempts++;
+                }
+                report.record(result == MoveResult.WON, gameModel.getNumberOfSteps());
+            }
+        }
+
+        return report;
+
+    }
+
+    /**
+     * returns the largest number of moves a game can take: one per safe
+     * dot. As in <b>GameModel</b>, a board holds at most one mine per dot.
+     * 
+     * @return the maximum number of moves of a game
+     */
+    private int maxMoves() {
+
+        return width*heigth - Math.min(numberOfMines, width*heigth);
+
+    }
+
+    /**
+     * <b>main</b> of the runner: plays games with a <b>SolverStrategy</b>,
+     * or a <b>RandomStrategy</b>, and prints the report.
+     * 
+     * @param args
+     *            command line parameters
+     */
+    public static void main(String[] args) {
+
+        int width = 9, heigth = 9, numberOfMines = 10;
+        long games = 1000000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        LongFunction<MoveStrategy> strategies = SolverStrategy::new;
+
+        if (args.length >= 5) {
+            width = Integer.parseInt(args[0]);
+            heigth = Integer.parseInt(args[1]);
+            numberOfMines = Integer.parseInt(args[2]);
+            games = Long.parseLong(args[3]);
+            threads = Integer.parseInt(args[4]);
+        }
+        if (args.length == 6 && args[5].equals("random")) {
+            strategies = RandomStrategy::new;
+        }
+
+        SimulationRunner runner = new SimulationRunner(width, heigth, numberOfMines, strategies);
+        System.out.println(runner.run(games, threads, 42));
+
+    }
+
+    /**
+     * The class <b>Report</b> holds the statistics of a simulation
+     */
+    public static class Report {
+
+        private long games;
+
+        private long wins;
+
+        private long nanos;
+
+        private long[] moves;
+
+        /**
+         * Constructor of an empty report
+         * 
+         * @param maxMoves
+         *            the largest number of moves of a game
+         */
+        private Report(int maxMoves) {
+
+            moves = new long[maxMoves + 1];
+
+        }
+
+        /**
+         * Records the result of a game
+         * 
+         * @param won
+         *            true if the game was won
+         * @param steps
+         *            the number of moves of the game
+         */
+        private void record(boolean won, int steps) {
+
+            games++;
+            if (won) {
+                wins++;
+            }
+            moves[Math.min(steps, moves.length - 1)]++;
+
+        }
+
+        /**
+         * Adds the statistics of another report to this one
+         * 
+         * @param other
+         *            the other report
+         */
+        private void add(Report other) {
+
+            games += other.games;
+            wins += other.wins;
+            for (int n = 0; n < moves.length; n++) {
+                moves[n] += other.moves[n];
+            }
+
+        }
+
+        /**
+         * Getter method for the number of games played
+         * 
+         * @return the number of games
+         */
+        public long getGames() {
+
+            return games;
+
+        }
+
+        /**
+         * returns the number of games played per second
+         * 
+         * @return the throughput of the simulation
+         */
+        public double getGamesPerSecond() {
+
+            return games * 1e9 / nanos;
+
+        }
+
+        /**
+         * returns the proportion of won games, between 0 and 1
+         * 
+         * @return the rate of won games
+         */
+        public double getWinRate() {
+
+            return games == 0 ? 0 : (double) wins / games;
+
+        }
+
+        /**
+         * returns the number of games that took a given number of moves
+         * 
+         * @param steps
+         *            the number of moves
+         * @return the number of games that took that number of moves
+         */
+        public long getGamesWithMoves(int steps) {
+
+            return steps < moves.length ? moves[steps] : 0;
+
+        }
+
+        /**
+         * Builds a String representation of the report
+         *
+         * @return String representation of the report
+         */
+        public String toString() {
+
+            StringBuilder out = new StringBuilder();
+
+            out.append(String.format("%d games in %.2f s: %.0f games/s, win rate %.2f%%%n", 
+                games, nanos / 1e9, getGamesPerSecond(), 100 * getWinRate()));
+            out.append("moves per game:\n");
+            for (int n = 0; n < moves.length; n++) {
+                if (moves[n] > 0) {
+                    out.append(String.format("%6d: %d%n", n, moves[n]));
+                }
+            }
+            return out.toString();
+
+        }
+
+    }
+
+}
@@ -0,0 +1,491 @@
+/**
+ * The class <b>Solver</b> finds the dots that are provably safe or mined
+ * from the numbers uncovered in a <b>GameModel</b>. It applies two rules
+ * to each uncovered number:
+ * - single point: if the number is equal to the mines already known 
+ * around it, its other covered neighboors are safe; if it is equal to 
+ * the known mines plus its unknown neighboors, they are all mined;
+ * - subset: if the unknown neighboors of a number are a subset of the
+ * unknown neighboors of a close number, the difference of the numbers
+ * is the number of mines among the remaining dots.
+ *
+ * The solver is incremental: it follows the list of changes of the model
+ * and only examines again the numbers around the dots that changed since
+ * its last call, or around a newly deduced dot. When moves are undone, the
+ * deductions are made again from all the dots still uncovered, since 
+ * they may rely on dots that are covered again. Flags are ignored, since
+ * the player may have put them wrongly.
+ *
+ * All the dots are handled through their index i*heigth+j, and their
+ * neighboors are given by the <b>Topology</b> of the model.
+ *
+ */
+
+public class Solver {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE    = 1;
+    private static final byte MINE    = 2;
+    private static final byte QUEUED  = 4;
+
+    private GameEngine gameEngine;
+
+    private GameModel gameModel;
+
+    private int width, heigth;
+
+    private Topology topology;
+
+    private byte[] known;
+
+    private IndexList queue = new IndexList(64);
+
+    private IndexList safe = new IndexList(64);
+
+    private IndexList mines = new IndexList(64);
+
+    private int resetsSeen = -1;
+
+    private int revertsSeen;
+
+    private int changesSeen;
+
+    private int[] neighboors;
+
+    private int[] unknownsOfDot;
+
+    private int[] unknownsOfOther;
+
+    /**
+     * Constructor used for initializing the solver on an engine
+     * 
+     * @param gameEngine
+     *            the engine of the game to solve
+     */
+    public Solver(GameEngine gameEngine) {
+
+        this.gameEngine = gameEngine;
+        this.gameModel = gameEngine.getModel();
+        width = gameModel.getWidth();
+        heigth = gameModel.getHeigth();
+        topology = gameModel.getTopology();
+        known = new byte[width*heigth];
+        neighboors = new int[topology.getMaxNeighboors()];
+        unknownsOfDot = new int[topology.getMaxNeighboors()];
+        unknownsOfOther = new int[topology.getMaxNeighboors()];
+
+    }
+
+    /**
+     * Getter method for the engine
+     * 
+     * @return the engine of the game solved
+     */
+    public GameEngine getEngine() {
+
+        return gameEngine;
+
+    }
+
+    /**
+     * returns true if the dot has been proved mined
+     * 
+     * @param k
+     *            the index of the dot
+     * @return true if the dot is known to be mined
+     */
+    public boolean isKnownMine(int k) {
+
+        return (known[k] & MINE) != 0;
+
+    }
+
+    /**
+     * Updates the deductions of the solver with the changes of the model 
+     * since the last call. Afterwards, <b>getSafe</b> lists the covered 
+     * dots that are provably safe, and <b>getMines</b> the dots that are
+     * provably mined.
+     * 
+     * @return the number of covered dots that are provably safe
+     */
+    public int hint() {
+
+        int k;
+
+        if (resetsSeen != gameModel.getNumberOfResets() || revertsSeen != gameModel.getNumberOfReverts()) {
+            resetsSeen = gameModel.getNumberOfResets();
+            revertsSeen = gameModel.getNumberOfReverts();
+            changesSeen = 0;
+            java.util.Arrays.fill(known, UNKNOWN);
+            queue.clear();
+            safe.clear();
+            mines.clear();
+        }
+
+        for (; changesSeen < gameModel.getNumberOfChanges(); changesSeen++) {
+            k = gameModel.getChangedDot(changesSeen);
+            if (!isCovered(k)) {
+                enqueue(k);
+                enqueueAround(k);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            k = queue.pop();
+            known[k] &= ~QUEUED;
+            examine(k);
+        }
+
+        compactSafe();
+        return safe.size();
+
+    }
+
+    /**
+     * returns the covered dots that were proved safe by the last call to
+     * <b>hint</b>
+     * 
+     * @return the list of the indices of the safe dots
+     */
+    public IndexList getSafe() {
+
+        return safe;
+
+    }
+
+    /**
+     * returns the dots that were proved mined by the calls to <b>hint</b>
+     * since the last reset
+     * 
+     * @return the list of the indices of the mined dots
+     */
+    public IndexList getMines() {
+
+        return mines;
+
+    }
+
+    /**
+     * Plays all the moves that can be proved: reveals the safe dots and
+     * flags the mined ones, as long as new deductions are found. As the
+     * solver ignores flags, a dot proved safe may have been flagged by the
+     * player: its flag is removed before it is revealed. The loop also
+     * stops when a pass reveals nothing, so that it always ends.
+     * 
+     * @return the result of the last move played, or IGNORED if no move
+     *  could be proved
+     */
+    public MoveResult autoPlay() {
+
+        MoveResult result = MoveResult.IGNORED;
+        MoveResult last;
+        boolean progress = true;
+        int k;
+
+        while (progress && !gameEngine.isOver() && hint() > 0) {
+            progress = false;
+            for (int s = 0; s < safe.size() && !gameEngine.isOver(); s++) {
+                k = safe.get(s);
+                if (gameModel.isFlagged(k / heigth, k % heigth)) {
+                    gameEngine.flag(k / heigth, k % heigth);
+                }
+                last = gameEngine.reveal(k / heigth, k % heigth);
+                if (last != MoveResult.IGNORED) {
+                    result = last;
+                    progress = true;
+                }
+            }
+        }
+
+        for (int m = 0; m < mines.size() && !gameEngine.isOver(); m++) {
+            k = mines.get(m);
+            if (isCovered(k) && !gameModel.isFlagged(k / heigth, k % heigth)) {
+                gameEngine.flag(k / heigth, k % heigth);
+            }
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Applies the single point rule, then the subset rule, to the 
+     * uncovered dot k
+     * 
+     * @param k
+     *            the index of the dot
+     */
+    private void examine(int k) {
+
+        int unknowns, remaining, others, otherRemaining, first;
+        int[] around;
+
+        if (isCovered(k) || isMined(k)) {
+            return;
+        }
+
+        unknowns = unknownNeighboors(k, unknownsOfDot);
+        if (unknowns == 0) {
+            return;
+        }
+        remaining = remainingMines(k);
+
+        if (remaining == 0) {
+            for (int n = 0; n < unknowns; n++) {
+                deduce(unknownsOfDot[n], SAFE);
+            }
+            return;
+        }
+        if (remaining == unknowns) {
+            for (int n = 0; n < unknowns; n++) {
+                deduce(unknownsOfDot[n], MINE);
+            }
+            return;
+        }
+
+        // a number whose unknown neighboors contain those of k touches
+        // all of them, and in particular the first one
+        first = unknownsOfDot[0];
+        around = topology.offsets(first);
+        for (int m = 0; m < around.length; m++) {
+            int other = first + around[m];
+            if (other == k || isCovered(other) || isMined(other)) {
+                continue;
+            }
+            others = unknownNeighboors(other, unknownsOfOther);
+            if (others <= unknowns || !contains(unknownsOfOther, others, unknownsOfDot, unknowns)) {
+                continue;
+            }
+            otherRemaining = remainingMines(other);
+            if (otherRemaining == remaining) {
+                deduceDifference(unknownsOfOther, others, unknownsOfDot, unknowns, SAFE);
+                return;
+            }
+            if (otherRemaining - remaining == others - unknowns) {
+                deduceDifference(unknownsOfOther, others, unknownsOfDot, unknowns, MINE);
+                return;
+            }
+        }
+
+    }
+
+    /**
+     * Records that a dot is safe or mined, and queues the numbers around
+     * it, whose unknown neighboors have changed
+     * 
+     * @param k
+     *            the index of the dot
+     * @param value
+     *            SAFE or MINE
+     */
+    private void deduce(int k, byte value) {
+
+        if ((known[k] & (SAFE | MINE)) != 0) {
+            return;
+        }
+        known[k] |= value;
+        if (value == SAFE) {
+            safe.push(k);
+        }
+        else {
+            mines.push(k);
+        }
+        enqueueAround(k);
+
+    }
+
+    /**
+     * Records the dots of a set that are not in a subset of it
+     * 
+     * @param set
+     *            the dots of the set
+     * @param size
+     *            the number of dots of the set
+     * @param subset
+     *            the dots of the subset
+     * @param subsetSize
+     *            the number of dots of the subset
+     * @param value
+     *            SAFE or MINE
+     */
+    private void deduceDifference(int[] set, int size, int[] subset, int subsetSize, byte value) {
+
+        for (int n = 0; n < size; n++) {
+            if (!contains(subset, subsetSize, set, n, 1)) {
+                deduce(set[n], value);
+            }
+        }
+
+    }
+
+    /**
+     * Fills an array with the covered neighboors of a dot that are not
+     * known to be safe or mined
+     * 
+     * @param k
+     *            the index of the dot
+     * @param unknowns
+     *            the array to fill
+     * @return the number of unknown neighboors
+     */
+    private int unknownNeighboors(int k, int[] unknowns) {
+
+        int count = neighboors(k);
+        int n = 0;
+
+        for (int m = 0; m < count; m++) {
+            if (isCovered(neighboors[m]) && (known[neighboors[m]] & (SAFE | MINE)) == 0) {
+                unknowns[n++] = neighboors[m];
+            }
+        }
+        return n;
+
+    }
+
+    /**
+     * returns the number of the mines around an uncovered dot that are 
+     * not known yet
+     * 
+     * @param k
+     *            the index of the dot
+     * @return the number of the dot minus its known mined neighboors
+     */
+    private int remainingMines(int k) {
+
+        int count = neighboors(k);
+        int remaining = gameModel.getNeighbooringMines(k / heigth, k % heigth);
+
+        for (int m = 0; m < count; m++) {
+            if ((known[neighboors[m]] & MINE) != 0 || !isCovered(neighboors[m]) && isMined(neighboors[m])) {
+                remaining--;
+            }
+        }
+        return remaining;
+
+    }
+
+    /**
+     * Fills the array neighboors with the indices of the neighboors of
+     * a dot
+     * 
+     * @param k
+     *            the index of the dot
+     * @return the number of neighboors
+     */
+    private int neighboors(int k) {
+
+        return topology.neighboors(k, neighboors);
+
+    }
+
+    /**
+     * returns true if all the elements of a part of an array are in
+     * another array
+     * 
+     * @param set
+     *            the array searched
+     * @param size
+     *            the number of elements of the array searched
+     * @param elements
+     *            the array of the elements looked for
+     * @param count
+     *            the number of elements looked for
+     * @return true if set contains all the elements
+     */
+    private static boolean contains(int[] set, int size, int[] elements, int count) {
+
+        return contains(set, size, elements, 0, count);
+
+    }
+
+    /**
+     * returns true if all the elements of a part of an array are in
+     * another array
+     * 
+     * @param set
+     *            the array searched
+     * @param size
+     *            the number of elements of the array searched
+     * @param elements
+     *            the array of the elements looked for
+     * @param from
+     *            the position of the first element looked for
+     * @param count
+     *            the number of elements looked for
+     * @return true if set contains all the elements
+     */
+    private static boolean contains(int[] set, int size, int[] elements, int from, int count) {
+
+        for (int n = from; n < from + count; n++) {
+            boolean found = false;
+            for (int m = 0; m < size && !found; m++) {
+                found = set[m] == elements[n];
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+
+    }
+
+    /**
+     * Queues an uncovered dot to be examined, unless it is already queued
+     * 
+     * @param k
+     *            the index of the dot
+     */
+    private void enqueue(int k) {
+
+        if ((known[k] & QUEUED) == 0) {
+            known[k] |= QUEUED;
+            queue.push(k);
+        }
+
+    }
+
+    /**
+     * Queues the uncovered neighboors of a dot
+     * 
+     * @param k
+     *            the index of the dot
+     */
+    private void enqueueAround(int k) {
+
+        int count = neighboors(k);
+
+        for (int m = 0; m < count; m++) {
+            if (!isCovered(neighboors[m])) {
+                enqueue(neighboors[m]);
+            }
+        }
+
+    }
+
+    /**
+     * Removes from the list of safe dots the ones that have been uncovered
+     */
+    private void compactSafe() {
+
+        int n = 0;
+        int k;
+
+        for (int s = 0; s < safe.size(); s++) {
+            k = safe.get(s);
+            if (isCovered(k)) {
+                safe.set(n++, k);
+            }
+        }
+        safe.truncate(n);
+
+    }
+
+    private boolean isCovered(int k) {
+        return gameModel.isCovered(k / heigth, k % heigth);
+    }
+
+    private boolean isMined(int k) {
+        return gameModel.isMined(k / heigth, k % heigth);
+    }
+
+}
@@ -0,0 +1,127 @@
+/**
+ * The class <b>SolverCheck</b> plays, without any display, the positions
+ * in which the <b>Solver</b> once misbehaved, and fails if it does again.
+ * Like the <b>SimulationRunner</b>, it is run from the command line; each
+ * check runs on its own thread, and a check that does not end within a
+ * few seconds is reported as failed.
+ *
+ * Usage: java SolverCheck
+ *
+ */
+
+public class SolverCheck {
+
+    private static final long TIMEOUT_MILLIS = 3000;
+
+    /**
+     * A dot proved safe, but flagged by the player: <b>autoPlay</b> must
+     * remove the flag and reveal the dot, instead of trying to reveal it
+     * again and again
+     */
+    private static void flaggedSafeDot() {
+
+        GameModel gameModel = new GameModel.Builder(9, 9, 10).seed(0).build();
+        GameEngine gameEngine = new GameEngine(gameModel);
+        Solver solver = new Solver(gameEngine);
+        int i, j, k;
+
+        k = blank(gameModel);
+        gameEngine.reveal(k / 9, k % 9);
+        if (solver.hint() == 0) {
+            throw new IllegalStateException("no safe dot to flag");
+        }
+        k = solver.getSafe().get(0);
+        i = k / 9;
+        j = k % 9;
+        gameEngine.flag(i, j);
+
+        solver.autoPlay();
+        if (gameModel.isCovered(i, j) || gameModel.isFlagged(i, j)) {
+            throw new IllegalStateException("the flagged safe dot (" + i + "," + j + ") was not revealed");
+        }
+
+    }
+
+    /**
+     * returns the first dot of a board with no mine in its neighborood
+     *
+     * @param gameModel
+     *            the model
+     * @return the index i*heigth+j of the dot
+     */
+    private static int blank(GameModel gameModel) {
+
+        int heigth = gameModel.getHeigth();
+
+        for (int i = 0; i < gameModel.getWidth(); i++) {
+            for (int j = 0; j < heigth; j++) {
+                if (!gameModel.isMined(i, j) && gameModel.getNeighbooringMines(i, j) == 0) {
+                    return i*heigth + j;
+                }
+            }
+        }
+        throw new IllegalStateException("the board has no blank dot");
+
+    }
+
+    /**
+     * Runs a check on its own thread, and waits for it at most
+     * TIMEOUT_MILLIS
+     *
+     * @param name
+     *            the name of the check
+     * @param check
+     *            the check
+     * @return true if the check passed
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting for the check
+     */
+    private static boolean run(String name, Runnable check) throws InterruptedException {
+
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(() -> {
+            try {
+                check.run();
+            }
+            catch (Throwable e) {
+                failure[0] = e;
+            }
+        }, name);
+
+        thread.setDaemon(true);
+        thread.start();
+        thread.join(TIMEOUT_MILLIS);
+
+        if (thread.isAlive()) {
+            System.out.println(name + ": FAILED, still running after " + TIMEOUT_MILLIS + " ms");
+            return false;
+        }
+        if (failure[0] != null) {
+            System.out.println(name + ": FAILED, " + failure[0]);
+            return false;
+        }
+        System.out.println(name + ": ok");
+        return true;
+
+    }
+
+    /**
+     * <b>main</b> of the checks: runs them all, and exits with the status
+     * 1 if one of them failed
+     *
+     * @param args
+     *            command line parameters, not used
+     * @throws InterruptedException
+     *             if the thread is interrupted while waiting for a check
+     */
+    public static void main(String[] args) throws InterruptedException {
+
+        boolean passed = run("flaggedSafeDot", SolverCheck::flaggedSafeDot);
+
+        if (!passed) {
+            System.exit(1);
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+/**
+ * The class <b>SolverStrategy</b> is a <b>MoveStrategy</b> that reveals
+ * the dots proved safe by a <b>Solver</b>, and only guesses, at random 
+ * among the dots not proved mined, when nothing can be proved.
+ *
+ */
+
+public class SolverStrategy implements MoveStrategy {
+
+    private long seed;
+
+    private SplitMixRandom generator;
+
+    private Solver solver;
+
+    /**
+     * Constructor, used to initialize the strategy with a seed
+     * 
+     * @param seed
+     *            the seed of the guesses of the strategy
+     */
+    public SolverStrategy(long seed) {
+
+        this.seed = seed;
+        generator = new SplitMixRandom(seed);
+
+    }
+
+    public void newGame(GameEngine engine) {
+
+        if (solver == null || solver.getEngine() != engine) {
+            solver = new Solver(engine);
+        }
+        generator.setSeed(SplitMixRandom.mix(seed ^ engine.getModel().getSeed()));
+
+    }
+
+    public MoveResult play(GameEngine engine) {
+
+        GameModel gameModel = engine.getModel();
+        int heigth = gameModel.getHeigth();
+        int i, j, k;
+
+        if (solver.hint() > 0) {
+            k = solver.getSafe().get(0);
+            return engine.reveal(k / heigth, k % heigth);
+        }
+
+        do {
+            i = generator.nextInt(gameModel.getWidth());
+            j = generator.nextInt(heigth);
+        } while (!gameModel.isCovered(i, j) || solver.isKnownMine(i*heigth + j));
+
+        return engine.reveal(i, j);
+
+    }
+
+}
@@ -0,0 +1,65 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * The class <b>SplitMixRandom</b> is a small, fast random generator 
+ * (the SplitMix64 algorithm). Unlike most generators of the JDK it can 
+ * be reseeded in place, so that a board can be regenerated from its seed
+ * without allocating a new generator.
+ *
+ */
+
+public class SplitMixRandom implements RandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    /**
+     * Constructor, used to initialize the generator with a seed
+     * 
+     * @param seed
+     *            the seed
+     */
+    public SplitMixRandom(long seed){
+
+        state = seed;
+
+    }
+
+    /**
+     * Reseeds the generator: it then produces the same numbers as a new
+     * generator created with that seed
+     * 
+     * @param seed
+     *            the seed
+     */
+    public void setSeed(long seed){
+
+        state = seed;
+
+    }
+
+    public long nextLong(){
+
+        state += GOLDEN_GAMMA;
+        return mix(state);
+
+    }
+
+    /**
+     * Scrambles the bits of a value. Used to derive well distributed seeds
+     * from consecutive or related values
+     * 
+     * @param z
+     *            the value to scramble
+     * @return the scrambled value
+     */
+    public static long mix(long z){
+
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+
+    }
+
+}
@@ -0,0 +1,312 @@
+/**
+ * The class <b>Topology</b> tells which dots of a board are neighboors.
+ * Three topologies are available: the usual square grid, the torus
+ * (a square grid whose opposite borders touch) and the hexagonal grid,
+ * in which each dot has six neighboors. In the hexagonal grid, the odd
+ * lines are shifted by half a dot: the dot (i,j) of an even line touches
+ * the dots j-1 and j of the lines around it, the dot of an odd line the
+ * dots j and j+1.
+ *
+ * The neighboors of a dot are given as offsets to add to its index
+ * i*heigth+j. They are computed once, when the topology is created, for
+ * each class of dots: a dot is on the first line, the last line or
+ * between them, on the first column, the last column or between them,
+ * and on an even or an odd line. The loops on the neighboors of a dot
+ * then need no bounds check at all: the offsets of the dots of the
+ * borders simply leave out (or wrap around) the neighboors that are not
+ * on the board. The arrays of offsets are shared and must not be
+ * modified.
+ *
+ * Every hot loop on neighboors (counting, flood fill, chording, solvers)
+ * goes through the same topology, so that a board can change of topology
+ * without any change to them. On the bounded square grid, which
+ * <b>isSquare</b>, the counting and the flood fill of <b>GameModel</b>
+ * keep their faster line by line algorithms.
+ *
+ */
+
+public final class Topology {
+
+    private static final int FIRST = 1;
+    private static final int LAST  = 2;
+    private static final int ODD   = 4;
+
+    private static final int[][] SQUARE =
+        {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+    private static final int[][] HEX_EVEN =
+        {{-1, -1}, {-1, 0}, {0, -1}, {0, 1}, {1, -1}, {1, 0}};
+
+    private static final int[][] HEX_ODD =
+        {{-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, 0}, {1, 1}};
+
+    private final int width, heigth;
+
+    private final boolean torus, hex;
+
+    private final byte[] lineClass;
+
+    private final byte[] columnClass;
+
+    private final int[][] offsets = new int[32][];
+
+    /**
+     * Constructor, which computes the offsets of each class of dots
+     *
+     * @param width
+     *            the width of the board
+     * @param heigth
+     *            the heigth of the board
+     * @param torus
+     *            true if the opposite borders touch
+     * @param hex
+     *            true for the hexagonal grid
+     */
+    private Topology(int width, int heigth, boolean torus, boolean hex){
+
+        if(width <= 0 || heigth <= 0){
+            throw new IllegalArgumentException("the board must have at least one dot");
+        }
+        if(torus && (width < 3 || heigth < 3)){
+            throw new IllegalArgumentException("a torus must be at least 3x3, not " + width + "x" + heigth);
+        }
+
+        this.width = width;
+        this.heigth = heigth;
+        this.torus = torus;
+        this.hex = hex;
+
+        lineClass = new byte[width];
+        for(int i=0; i<width; i++){
+            lineClass[i] = (byte) ((i == 0 ? FIRST : 0) | (i == width-1 ? LAST : 0)
+                | (hex && i % 2 == 1 ? ODD : 0));
+        }
+        columnClass = new byte[heigth];
+        for(int j=0; j<heigth; j++){
+            columnClass[j] = (byte) ((j == 0 ? FIRST : 0) | (j == heigth-1 ? LAST : 0));
+        }
+
+        for(int line=0; line<8; line++){
+            for(int column=0; column<4; column++){
+                offsets[line << 2 | column] = offsetsOf(line, column);
+            }
+        }
+
+    }
+
+    /**
+     * returns the bounded square grid, in which each dot has up to eight
+     * neighboors
+     *
+     * @param width
+     *            the width of the board
+     * @param heigth
+     *            the heigth of the board
+     * @return the topology
+     */
+    public static Topology square(int width, int heigth){
+
+        return new Topology(width, heigth, false, false);
+
+    }
+
+    /**
+     * returns the square grid whose opposite borders touch, in which
+     * each dot has eight neighboors
+     *
+     * @param width
+     *            the width of the board, at least 3
+     * @param heigth
+     *            the heigth of the board, at least 3
+     * @return the topology
+     */
+    public static Topology torus(int width, int heigth){
+
+        return new Topology(width, heigth, true, false);
+
+    }
+
+    /**
+     * returns the bounded hexagonal grid, in which each dot has up to six
+     * neighboors
+     *
+     * @param width
+     *            the width of the board
+     * @param heigth
+     *            the heigth of the board
+     * @return the topology
+     */
+    public static Topology hex(int width, int heigth){
+
+        return new Topology(width, heigth, false, true);
+
+    }
+
+    /**
+     * Getter method for the width of the board
+     *
+     * @return the width of the board
+     */
+    public int getWidth(){
+
+        return width;
+
+    }
+
+    /**
+     * Getter method for the heigth of the board
+     *
+     * @return the heigth of the board
+     */
+    public int getHeigth(){
+
+        return heigth;
+
+    }
+
+    /**
+     * returns true for the bounded square grid
+     *
+     * @return true if the topology is the usual one
+     */
+    public boolean isSquare(){
+
+        return !torus && !hex;
+
+    }
+
+    /**
+     * returns true for the torus
+     *
+     * @return true if the opposite borders touch
+     */
+    public boolean isTorus(){
+
+        return torus;
+
+    }
+
+    /**
+     * returns true for the hexagonal grid
+     *
+     * @return true if the dots have six neighboors
+     */
+    public boolean isHex(){
+
+        return hex;
+
+    }
+
+    /**
+     * returns the largest number of neighboors of a dot: 8, or 6 on the
+     * hexagonal grid
+     *
+     * @return the size of the arrays to fill with <b>neighboors</b>
+     */
+    public int getMaxNeighboors(){
+
+        return hex ? HEX_EVEN.length : SQUARE.length;
+
+    }
+
+    /**
+     * returns the offsets of the neighboors of the dot at location (i,j):
+     * its neighboors are the dots of indices i*heigth+j+offset. The array
+     * is shared and must not be modified.
+     *
+     * @param i
+     *            the x coordinate of the dot
+     * @param j
+     *            the y coordinate of the dot
+     * @return the offsets of the neighboors of the dot
+     */
+    public int[] offsets(int i, int j){
+
+        return offsets[lineClass[i] << 2 | columnClass[j]];
+
+    }
+
+    /**
+     * returns the offsets of the neighboors of a dot, as
+     * <b>offsets(i, j)</b>
+     *
+     * @param k
+     *            the index i*heigth+j of the dot
+     * @return the offsets of the neighboors of the dot
+     */
+    public int[] offsets(int k){
+
+        return offsets(k / heigth, k % heigth);
+
+    }
+
+    /**
+     * Fills an array with the indices of the neighboors of a dot
+     *
+     * @param k
+     *            the index i*heigth+j of the dot
+     * @param neighboors
+     *            the array to fill, of at least getMaxNeighboors() ints
+     * @return the number of neighboors of the dot
+     */
+    public int neighboors(int k, int[] neighboors){
+
+        int[] around = offsets(k);
+
+        for(int n=0; n<around.length; n++){
+            neighboors[n] = k + around[n];
+        }
+        return around.length;
+
+    }
+
+    /**
+     * Computes the offsets of the neighboors of a class of dots
+     *
+     * @param line
+     *            the FIRST, LAST and ODD bits of the line of the dots
+     * @param column
+     *            the FIRST and LAST bits of the column of the dots
+     * @return the offsets
+     */
+    private int[] offsetsOf(int line, int column){
+
+        int[][] pattern = !hex ? SQUARE : (line & ODD) != 0 ? HEX_ODD : HEX_EVEN;
+        int[] result = new int[pattern.length];
+        int size = 0;
+        int di, dj;
+
+        for(int[] step : pattern){
+            di = shift(step[0], line, width);
+            dj = shift(step[1], column, heigth);
+            if(di != Integer.MIN_VALUE && dj != Integer.MIN_VALUE){
+                result[size++] = di*heigth + dj;
+            }
+        }
+        return java.util.Arrays.copyOf(result, size);
+
+    }
+
+    /**
+     * returns the move, along one axis, to the neighboor at a step of -1,
+     * 0 or 1 from a dot, which wraps around the border on a torus
+     *
+     * @param step
+     *            the step from the dot
+     * @param bits
+     *            the FIRST and LAST bits of the dot along the axis
+     * @param length
+     *            the length of the axis
+     * @return the move, or Integer.MIN_VALUE if the neighboor is out of
+     *  the board
+     */
+    private int shift(int step, int bits, int length){
+
+        if(step < 0 && (bits & FIRST) != 0 || step > 0 && (bits & LAST) != 0){
+            return torus ? -step*(length - 1) : Integer.MIN_VALUE;
+        }
+        return step;
+
+    }
+
+}
@@ -0,0 +1,395 @@
+import benchmarks.Workload;
+import benchmarks.Workloads;
+
+/**
+ * The class <b>GameWorkloads</b> creates the operations of the game
+ * measured by the JMH benchmarks of the package <b>benchmarks</b>. It is
+ * in the default package, as the game, so that it can use its classes.
+ *
+ * The original implementations replaced by faster algorithms are kept
+ * here, as references for the benchmarks that compare them.
+ *
+ */
+public class GameWorkloads implements Workloads {
+
+    private static final int MINES_SIZE = 1000;
+
+    public Workload construction(int size, int density, boolean packed) {
+
+        int numberOfMines = size*size*density/100;
+
+        return () -> new GameModel(size, size, numberOfMines, packed);
+
+    }
+
+    public Workload reset(int size, int density, boolean packed) {
+
+        GameModel gameModel = new GameModel(size, size, size*size*density/100, packed);
+
+        return () -> {
+            gameModel.reset();
+            return gameModel;
+        };
+
+    }
+
+    public Workload minesRejection(int density) {
+
+        BoardStorage storage = new PackedBoardStorage(MINES_SIZE, MINES_SIZE);
+        java.util.Random generator = new java.util.Random(42);
+        int numberOfMines = MINES_SIZE*MINES_SIZE/100*density;
+
+        return new Workload() {
+            public void prepare() {
+                storage.clear();
+            }
+            public Object run() {
+                legacyAddMines(storage, MINES_SIZE, MINES_SIZE, numberOfMines, generator);
+                return storage;
+            }
+        };
+
+    }
+
+    public Workload minesFloyd(int density) {
+
+        BoardStorage storage = new PackedBoardStorage(MINES_SIZE, MINES_SIZE);
+        java.util.Random generator = new java.util.Random(42);
+        int numberOfMines = MINES_SIZE*MINES_SIZE/100*density;
+
+        return new Workload() {
+            public void prepare() {
+                storage.clear();
+            }
+            public Object run() {
+                MinePlacer.placeMines(storage, 0, MINES_SIZE*MINES_SIZE, numberOfMines, generator);
+                return storage;
+            }
+        };
+
+    }
+
+    public Workload numbersLegacy(int size) {
+
+        BoardStorage storage = numbersBoard(size);
+
+        return () -> {
+            legacyAddNumbers(storage, size, size);
+            return storage;
+        };
+
+    }
+
+    public Workload numbersSeparable(int size) {
+
+        BoardStorage storage = numbersBoard(size);
+        NeighbourCounter counter = new NeighbourCounter();
+
+        return () -> {
+            counter.count(storage, size, size);
+            return storage;
+        };
+
+    }
+
+    public Workload finished(int size) {
+
+        GameModel gameModel = new GameModel.Builder(size, size, size*size/10).packed(true).seed(42).build();
+
+        return gameModel::isFinished;
+
+    }
+
+    public Workload clearZone(int size, int density) {
+
+        GameModel gameModel = new GameModel.Builder(size, size, size*size*density/100).packed(true).build();
+        int[] blank = new int[2];
+
+        return new Workload() {
+            public void prepare() {
+                gameModel.reset(42);
+                findBlank(gameModel, blank);
+            }
+            public Object run() {
+                return gameModel.clearZone(blank[0], blank[1]);
+            }
+        };
+
+    }
+
+    public Workload gameChanged(int size, int density) {
+
+        GameModel gameModel = new GameModel.Builder(size, size, size*size*density/100).packed(true).seed(42).build();
+        java.util.List<GameEvent> events = new java.util.ArrayList<>();
+        int[] blank = new int[2];
+
+        findBlank(gameModel, blank);
+        DotIcons icons = new DotIcons(gameModel);
+        GameListener recorder = events::add;
+        gameModel.addGameListener(recorder, Runnable::run);
+        new GameEngine(gameModel).reveal(blank[0], blank[1]);
+        gameModel.removeGameListener(recorder);
+
+        return () -> {
+            for(GameEvent event : events){
+                icons.gameChanged(event);
+            }
+            return icons;
+        };
+
+    }
+
+    /**
+     * Finds the first blank, non mined dot of a board. If there is none,
+     * the first non mined dot is used.
+     * 
+     * @param gameModel
+     *            the model
+     * @param location
+     *            an array in which the coordinates of the dot are stored
+     */
+    static void findBlank(GameModel gameModel, int[] location){
+
+        location[0] = -1;
+        for (int i=0; i<gameModel.getWidth(); i++) {
+            for (int j=0; j<gameModel.getHeigth(); j++) {
+                if (!gameModel.isMined(i, j) && (gameModel.isBlank(i, j) || location[0] < 0)) {
+                    location[0] = i;
+                    location[1] = j;
+                    if (gameModel.isBlank(i, j)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Creates a square packed board with 15% of mines, on which the
+     * numbers of neighbooring mines are computed
+     * 
+     * @param size
+     *            the width and heigth of the board
+     * @return the storage of the board
+     */
+    private static BoardStorage numbersBoard(int size){
+
+        BoardStorage storage = new PackedBoardStorage(size, size);
+        java.util.Random generator = new java.util.Random(42);
+
+        for(int k=0; k<size*size; k++){
+            if(generator.nextInt(100) < 15){
+                storage.setMined(k);
+            }
+        }
+        return storage;
+
+    }
+
+    /**
+     * The original implementation of <b>addMines</b>, used as a reference
+     * 
+     * @param storage
+     *            the storage of the board
+     * @param widthOfGame
+     *            the width of the board
+     * @param heigthOfGame
+     *            the heigth of the board
+     * @param numberOfMines
+     *            the number of mines to place
+     * @param generator
+     *            the random generator to use
+     */
+    private static void legacyAddMines(BoardStorage storage, int widthOfGame, int heigthOfGame,
+        int numberOfMines, java.util.Random generator){
+
+        int i, j;
+        int minesAdded = 0;
+        
+        while(minesAdded < numberOfMines){
+            i = generator.nextInt(widthOfGame);
+            j = generator.nextInt(heigthOfGame);
+            if(!storage.isMined(i*heigthOfGame + j)){
+                storage.setMined(i*heigthOfGame + j);
+                minesAdded++;
+            }
+        }
+    }
+
+    /**
+     * The original implementation of <b>addNumbers</b>, used as a reference
+     * 
+     * @param storage
+     *            the storage of the board
+     * @param widthOfGame
+     *            the width of the board
+     * @param heigthOfGame
+     *            the heigth of the board
+     */
+    private static void legacyAddNumbers(BoardStorage storage, int widthOfGame, int heigthOfGame){
+
+        int mines;
+
+        for(int i=0; i<widthOfGame; i++){
+            for(int j=0; j<heigthOfGame; j++){
+
+                mines = 0;
+
+                if(i==0 && j==0){
+                    if (storage.isMined((i+1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+                    if (storage.isMined(i*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                }
+
+                else if(i==0 && j==heigthOfGame-1){
+                    if (storage.isMined(i*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                }
+
+                else if(i==widthOfGame-1 && j==0){
+                    if (storage.isMined((i-1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i-1)*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined(i*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                }
+
+                else if(i==widthOfGame-1 && j==heigthOfGame-1){
+                    if (storage.isMined(i*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i-1)*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i-1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+                }
+
+                else if(0<i && i<widthOfGame-1 && j==0){
+
+                    if (storage.isMined((i-1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i-1)*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined(i*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                }
+
+                else if(0<i && i<widthOfGame-1 && j==heigthOfGame-1){
+                    if (storage.isMined((i-1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i-1)*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined(i*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+                }
+
+                else if(i==0 && j>0 && j<heigthOfGame-1){
+                    if (storage.isMined(i*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined(i*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                }
+
+                else if(i==widthOfGame-1 && j>0 && j<heigthOfGame-1){
+                    if (storage.isMined(i*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i-1)*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i-1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i-1)*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined(i*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                }
+
+                else{
+                    if (storage.isMined(i*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined(i*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+
+                    if (storage.isMined((i-1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j)){
+                        mines += 1;
+                    }
+
+                    if (storage.isMined((i-1)*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+
+                    if (storage.isMined((i-1)*heigthOfGame + j-1)){
+                        mines += 1;
+                    }
+                    if (storage.isMined((i+1)*heigthOfGame + j+1)){
+                        mines += 1;
+                    }
+                }
+
+                storage.setNeighbooringMines(i*heigthOfGame + j, mines);
+            }
+        }
+    }
+
+}
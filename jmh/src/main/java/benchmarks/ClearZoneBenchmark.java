@@ -0,0 +1,61 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The class <b>ClearZoneBenchmark</b> measures <b>clearZone</b> from a
+ * blank dot of a packed board. The board is reset before each operation,
+ * outside of the measured time.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClearZoneBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"1", "10"})
+    public int density;
+
+    private Workload clearZone;
+
+    @Setup
+    public void setup() {
+
+        clearZone = Workloads.get().clearZone(size, density);
+
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+
+        clearZone.prepare();
+
+    }
+
+    @Benchmark
+    public Object clearZone() {
+
+        return clearZone.run();
+
+    }
+
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The class <b>GameChangedBenchmark</b> measures the update of the view
+ * after a move: the icons of the view follow the events of the reveal of
+ * a blank dot of a packed board. The events are recorded once, delivered
+ * by the model with <b>Runnable::run</b>, and given again to the icons at
+ * each operation, which gives the same icons. No frame is opened, so the
+ * benchmark runs on a headless machine.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameChangedBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"1", "10"})
+    public int density;
+
+    private Workload gameChanged;
+
+    @Setup
+    public void setup() {
+
+        gameChanged = Workloads.get().gameChanged(size, density);
+
+    }
+
+    @Benchmark
+    public Object gameChanged() {
+
+        return gameChanged.run();
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The class <b>MinesBenchmark</b> compares the placement of the mines of a
+ * 1000x1000 board by <b>MinePlacer</b> with the original rejection
+ * sampling. The board is cleared before each operation, outside of the
+ * measured time.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinesBenchmark {
+
+    @Param({"10", "50", "99"})
+    public int density;
+
+    private Workload rejection, floyd;
+
+    @Setup
+    public void setup() {
+
+        rejection = Workloads.get().minesRejection(density);
+        floyd = Workloads.get().minesFloyd(density);
+
+    }
+
+    @Setup(Level.Invocation)
+    public void clear() {
+
+        rejection.prepare();
+        floyd.prepare();
+
+    }
+
+    @Benchmark
+    public Object rejection() {
+
+        return rejection.run();
+
+    }
+
+    @Benchmark
+    public Object floyd() {
+
+        return floyd.run();
+
+    }
+
+}
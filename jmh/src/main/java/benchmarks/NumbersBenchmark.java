@@ -0,0 +1,63 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The class <b>NumbersBenchmark</b> compares the computation of the
+ * numbers of neighbooring mines by <b>NeighbourCounter</b> with the
+ * original implementation, on square packed boards with 15% of mines.
+ * The numbers are computed again on the same board at each run, which
+ * gives the same result.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumbersBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private Workload legacy;
+
+    private Workload separable;
+
+    @Setup
+    public void setup() {
+
+        Workloads workloads = Workloads.get();
+        legacy = workloads.numbersLegacy(size);
+        separable = workloads.numbersSeparable(size);
+
+    }
+
+    @Benchmark
+    public Object legacy() {
+
+        return legacy.run();
+
+    }
+
+    @Benchmark
+    public Object separable() {
+
+        return separable.run();
+
+    }
+
+}
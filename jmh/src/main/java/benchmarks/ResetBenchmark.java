@@ -0,0 +1,55 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The class <b>ResetBenchmark</b> measures <b>reset</b>, which clears the
+ * board of a model and places new mines and numbers, without allocating.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResetBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"10", "20"})
+    public int density;
+
+    @Param({"false", "true"})
+    public boolean packed;
+
+    private Workload reset;
+
+    @Setup
+    public void setup() {
+
+        reset = Workloads.get().reset(size, density, packed);
+
+    }
+
+    @Benchmark
+    public Object reset() {
+
+        return reset.run();
+
+    }
+
+}
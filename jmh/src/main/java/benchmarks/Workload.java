@@ -0,0 +1,29 @@
+package benchmarks;
+
+/**
+ * The interface <b>Workload</b> is an operation of the game measured by a
+ * benchmark, with the preparation it needs before each run.
+ *
+ * The classes of the game are in the default package, which cannot be
+ * imported by the benchmarks (JMH requires them to be in a package): the
+ * benchmarks only see the game through the workloads created by
+ * <b>Workloads</b>.
+ *
+ */
+public interface Workload {
+
+    /**
+     * Prepares the next run of the operation. Called outside of the
+     * measured time, before each run, by the benchmarks that need it.
+     */
+    default void prepare() {
+    }
+
+    /**
+     * Runs the operation once
+     *
+     * @return the result of the operation, to be consumed by JMH
+     */
+    Object run();
+
+}
@@ -0,0 +1,128 @@
+package benchmarks;
+
+/**
+ * The interface <b>Workloads</b> creates the operations measured by the
+ * benchmarks. It is implemented by the class <b>GameWorkloads</b>, which
+ * is in the default package, as the game, and is found by its name.
+ *
+ */
+public interface Workloads {
+
+    /**
+     * returns the implementation of the workloads
+     *
+     * @return the workloads of the game
+     */
+    static Workloads get() {
+
+        try {
+            return (Workloads) Class.forName("GameWorkloads").getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("GameWorkloads cannot be created", e);
+        }
+
+    }
+
+    /**
+     * the creation of a model (allocation of the storage, mines and
+     * numbers)
+     *
+     * @param size
+     *            the width and heigth of the board
+     * @param density
+     *            the percentage of mined dots
+     * @param packed
+     *            true to use the packed storage
+     * @return the workload
+     */
+    Workload construction(int size, int density, boolean packed);
+
+    /**
+     * the reset of a model
+     *
+     * @param size
+     *            the width and heigth of the board
+     * @param density
+     *            the percentage of mined dots
+     * @param packed
+     *            true to use the packed storage
+     * @return the workload
+     */
+    Workload reset(int size, int density, boolean packed);
+
+    /**
+     * the placement of the mines of a 1000x1000 board by the original
+     * rejection sampling, on a board cleared before each run
+     *
+     * @param density
+     *            the percentage of mined dots
+     * @return the workload
+     */
+    Workload minesRejection(int density);
+
+    /**
+     * the placement of the mines of a 1000x1000 board by
+     * <b>MinePlacer</b>, on a board cleared before each run
+     *
+     * @param density
+     *            the percentage of mined dots
+     * @return the workload
+     */
+    Workload minesFloyd(int density);
+
+    /**
+     * the computation of the numbers of neighbooring mines of a square
+     * packed board with 15% of mines by the original implementation, a
+     * case analysis of the borders and corners
+     *
+     * @param size
+     *            the width and heigth of the board
+     * @return the workload
+     */
+    Workload numbersLegacy(int size);
+
+    /**
+     * the computation of the numbers of neighbooring mines of the same
+     * board by the separable sums of <b>NeighbourCounter</b>
+     *
+     * @param size
+     *            the width and heigth of the board
+     * @return the workload
+     */
+    Workload numbersSeparable(int size);
+
+    /**
+     * <b>isFinished</b> on a game in progress
+     *
+     * @param size
+     *            the width and heigth of the board
+     * @return the workload
+     */
+    Workload finished(int size);
+
+    /**
+     * <b>clearZone</b> from a blank dot of a board reset before each run
+     *
+     * @param size
+     *            the width and heigth of the board
+     * @param density
+     *            the percentage of mined dots
+     * @return the workload
+     */
+    Workload clearZone(int size, int density);
+
+    /**
+     * <b>gameChanged</b> of the icons of the view, with the events of the
+     * reveal of a blank dot, recorded once and delivered again at each
+     * run, without any frame
+     *
+     * @param size
+     *            the width and heigth of the board
+     * @param density
+     *            the percentage of mined dots
+     * @return the workload
+     */
+    Workload gameChanged(int size, int density);
+
+}
@@ -0,0 +1,15 @@
+/**
+ * JMH benchmarks of the hot paths of the game. Each benchmark is measured
+ * both in throughput and in sampled time (which gives the percentiles of
+ * the time of one operation); the allocation rate is given by the GC
+ * profiler:
+ *
+ * <pre>
+ * mvn -B package
+ * java -jar jmh/target/benchmarks.jar -prof gc
+ * </pre>
+ *
+ * The benchmarks reach the game, which is in the default package, through
+ * the <b>Workload</b>s created by <b>Workloads</b>.
+ */
+package benchmarks;